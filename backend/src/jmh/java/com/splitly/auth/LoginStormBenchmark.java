@@ -0,0 +1,104 @@
+package com.splitly.auth;
+
+import com.splitly.SplitlyApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over real HTTP: 32 threads hammer /auth/login while 4 threads read /expenses/all
+ * through a deliberately small Tomcat pool. Compare the readFeed p99 with loginStorm=false
+ * and loginStorm=true; it should stay flat because hashing runs on PasswordHashingExecutor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoginStormBenchmark {
+
+    @Param({"false", "true"})
+    boolean loginStorm;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    String baseUrl;
+    String loginBody;
+    String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(SplitlyApplication.class)
+                .run("--server.port=0", "--logging.level.root=WARN",
+                        "--server.tomcat.threads.max=8",
+                        "--security.rate-limit.enabled=false", // the storm is the point here
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newHttpClient();
+
+        String username = "storm" + UUID.randomUUID().toString().substring(0, 8);
+        loginBody = "{\"username\":\"" + username + "\",\"password\":\"password\"}";
+        send(post("/auth/register", "{\"username\":\"" + username + "\",\"password\":\"password\","
+                + "\"email\":\"" + username + "@example.com\",\"firstName\":\"Load\",\"lastName\":\"Test\"}"));
+
+        String response = send(post("/auth/login", loginBody)).body();
+        token = response.substring(response.indexOf(":\"") + 2, response.lastIndexOf('"'));
+
+        for (int i = 0; i < 50; i++) {
+            send(post("/expenses", "{\"title\":\"Lunch " + i + "\",\"amount\":12.50,\"category\":\"FOOD\","
+                    + "\"date\":\"2024-01-01\",\"paymentMethod\":\"CASH\"}"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(32)
+    public int login() throws Exception {
+        if (!loginStorm) {
+            // Idle without burning the CPU the readers need
+            TimeUnit.MILLISECONDS.sleep(10);
+            return 0;
+        }
+        // 200, or 503 once the hashing queue is full; both count as load
+        return send(post("/auth/login", loginBody)).statusCode();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public int readFeed() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/expenses/all"))
+                .header("Authorization", "Bearer " + token)
+                .GET());
+        if (response.statusCode() != 200) throw new IllegalStateException("Feed returned " + response.statusCode());
+        return response.body().length();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("Authorization", token != null ? "Bearer " + token : "")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,81 @@
+package com.splitly.expense;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.PaymentStatus;
+import com.splitly.user.Role;
+import com.splitly.user.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory entities and requests shared by the benchmarks.
+ */
+final class ExpenseFixtures {
+
+    private ExpenseFixtures() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .id(UUID.randomUUID())
+                    .username("user" + i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("user" + i + "@splitly.test")
+                    .password("x")
+                    .role(Role.USER)
+                    .build());
+        }
+        return users;
+    }
+
+    static Expense expense(User creator, List<User> participants) {
+        Expense expense = Expense.builder()
+                .uuid(UUID.randomUUID())
+                .title("Dinner")
+                .amount(BigDecimal.valueOf(participants.size() * 10L + 7))
+                .category(Category.FOOD)
+                .paymentMethod(PaymentMethod.CREDIT_CARD)
+                .date(LocalDate.of(2024, 1, 1))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .creator(creator)
+                .build();
+
+        for (User participant : participants) {
+            expense.getShares().add(ExpenseShare.builder()
+                    .id(UUID.randomUUID())
+                    .expense(expense)
+                    .user(participant)
+                    .amountOwed(BigDecimal.TEN)
+                    .status(PaymentStatus.UNPAID)
+                    .build());
+        }
+        return expense;
+    }
+
+    static ExpenseRequest request(List<User> participants) {
+        List<ExpenseRequest.Share> shares = new ArrayList<>(participants.size());
+        for (User participant : participants) {
+            shares.add(ExpenseRequest.Share.builder()
+                    .userId(participant.getId())
+                    .amountOwed(new BigDecimal("10.33"))
+                    .build());
+        }
+        return ExpenseRequest.builder()
+                .title("Dinner")
+                .amount(BigDecimal.valueOf(participants.size() * 11L))
+                .category(Category.FOOD)
+                .paymentMethod(PaymentMethod.CREDIT_CARD)
+                .date(LocalDate.of(2024, 1, 1))
+                .shares(shares)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.splitly.expense;
+
+import com.splitly.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pure in-memory costs of turning entities into responses and requests into shares.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int shareCount;
+
+    User creator;
+    Expense expense;
+    ExpenseRequest request;
+    Map<UUID, User> usersById;
+
+    @Setup
+    public void setUp() {
+        List<User> users = ExpenseFixtures.users(shareCount + 1);
+        creator = users.get(0);
+        List<User> participants = users.subList(1, users.size());
+
+        expense = ExpenseFixtures.expense(creator, participants);
+        request = ExpenseFixtures.request(participants);
+        usersById = participants.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    @Benchmark
+    public ExpenseResponse toResponse() {
+        return ExpenseService.toResponse(expense);
+    }
+
+    @Benchmark
+    public List<ExpenseShare> buildShares() {
+        Expense target = Expense.builder()
+                .amount(request.getAmount())
+                .creator(creator)
+                .build();
+        return ExpenseService.buildShares(target, request, creator, usersById);
+    }
+}
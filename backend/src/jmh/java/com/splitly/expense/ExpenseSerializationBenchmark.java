@@ -0,0 +1,48 @@
+package com.splitly.expense;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.splitly.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of an expense list, configured like Spring Boot's default mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseSerializationBenchmark {
+
+    @Param({"20", "500"})
+    int expenseCount;
+
+    @Param({"5"})
+    int sharesPerExpense;
+
+    ObjectMapper objectMapper;
+    List<ExpenseResponse> responses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<User> users = ExpenseFixtures.users(sharesPerExpense + 1);
+        responses = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            responses.add(ExpenseService.toResponse(ExpenseFixtures.expense(users.get(0), users.subList(1, users.size()))));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,72 @@
+package com.splitly.expense;
+
+import com.splitly.SplitlyApplication;
+import com.splitly.user.User;
+import com.splitly.user.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls against the embedded H2 (PostgreSQL mode) database configured
+ * in src/test/resources. Measures the JPA round trips, not just the mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseServiceBenchmark {
+
+    @Param({"200"})
+    int seededExpenses;
+
+    @Param({"5"})
+    int sharesPerExpense;
+
+    ConfigurableApplicationContext context;
+    ExpenseService expenseService;
+    ExpenseRequest request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SplitlyApplication.class)
+                .run("--server.port=0", "--logging.level.root=WARN");
+
+        expenseService = context.getBean(ExpenseService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        List<User> users = userRepository.saveAll(ExpenseFixtures.users(sharesPerExpense + 1).stream()
+                .peek(user -> user.setId(null))
+                .toList());
+        User creator = users.get(0);
+
+        // JMH runs setup and iterations on different threads, so the login must be visible to all of them
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(creator, null, creator.getAuthorities()));
+
+        request = ExpenseFixtures.request(users.subList(1, users.size()));
+        for (int i = 0; i < seededExpenses; i++) {
+            expenseService.createExpense(request);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpenseFeedResponse firstFeedPage() {
+        return expenseService.getAllExpenses(null, 20);
+    }
+
+    @Benchmark
+    public ExpenseResponse createExpense() {
+        return expenseService.createExpense(request);
+    }
+}
@@ -0,0 +1,74 @@
+package com.splitly.security;
+
+import com.splitly.user.Role;
+import com.splitly.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code legacy} reproduces the old
+ * filter path (three parses, key and parser rebuilt each time); {@code singleParse} and
+ * {@code cached} are the current path without and with the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtVerificationBenchmark {
+
+    static final String SECRET = "c3BsaXRseS1iZW5jaG1hcmstc2VjcmV0LWtleS0zMi1ieXRlcy1sb25n";
+
+    JwtService jwtService;
+    JwtService cachingJwtService;
+    User user;
+    String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, false, 0, new SimpleMeterRegistry());
+        cachingJwtService = new JwtService(SECRET, true, 100_000, new SimpleMeterRegistry());
+        user = User.builder().username("bench-user").password("x").role(Role.USER).build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = jwtService.verifyToken(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        Claims claims = cachingJwtService.verifyToken(token);
+        return cachingJwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(SECRET));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,62 @@
+package com.splitly.settlement;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the settlement planner with group size. Each group carries
+ * {@code sharesPerUser} open shares per member between random pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SettlementPlannerBenchmark {
+
+    @Param({"100", "1000", "5000", "10000"})
+    int groupSize;
+
+    @Param({"50"})
+    int sharesPerUser;
+
+    int[] debtors;
+    int[] creditors;
+    long[] amounts;
+    long[] net;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int edges = groupSize * sharesPerUser;
+
+        debtors = new int[edges];
+        creditors = new int[edges];
+        amounts = new long[edges];
+
+        for (int i = 0; i < edges; i++) {
+            int debtor = random.nextInt(groupSize);
+            int creditor = random.nextInt(groupSize - 1);
+            debtors[i] = debtor;
+            creditors[i] = creditor >= debtor ? creditor + 1 : creditor;
+            amounts[i] = 1 + random.nextInt(50_000);
+        }
+
+        net = SettlementPlanner.net(groupSize, debtors, creditors, amounts);
+    }
+
+    @Benchmark
+    public long[] net() {
+        return SettlementPlanner.net(groupSize, debtors, creditors, amounts);
+    }
+
+    @Benchmark
+    public SettlementPlanner.Plan settle() {
+        return SettlementPlanner.settle(net);
+    }
+
+    @Benchmark
+    public SettlementPlanner.Plan plan() {
+        return SettlementPlanner.plan(groupSize, debtors, creditors, amounts);
+    }
+}
@@ -0,0 +1,70 @@
+package com.splitly.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency in microseconds plus outcome counts for one operation
+class EndpointStats {
+
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+
+    void success(long latencyNanos) {
+        requests.increment();
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    void failure(long latencyNanos, String cause) {
+        success(latencyNanos);
+        errors.increment();
+        errorsByCause.computeIfAbsent(cause, c -> new LongAdder()).increment();
+    }
+
+    // Nothing to do for this operation right now, e.g. no unpaid share left to pay
+    void skip() {
+        skipped.increment();
+    }
+
+    void addTo(EndpointStats total) {
+        total.latency.add(latency);
+        total.requests.add(requests.sum());
+        total.errors.add(errors.sum());
+        total.skipped.add(skipped.sum());
+        errorsByCause.forEach((cause, count) -> total.errorsByCause.computeIfAbsent(cause, c -> new LongAdder()).add(count.sum()));
+    }
+
+    LoadTestReport.Endpoint toReport(double seconds) {
+
+        Map<String, Long> causes = new TreeMap<>();
+        errorsByCause.forEach((cause, count) -> causes.put(cause, count.sum()));
+
+        return LoadTestReport.Endpoint.builder()
+                .requests(requests.sum())
+                .errors(errors.sum())
+                .skipped(skipped.sum())
+                .throughput(requests.sum() / seconds)
+                .latencyMs(LoadTestReport.Latency.builder()
+                        .p50(percentile(50))
+                        .p95(percentile(95))
+                        .p99(percentile(99))
+                        .p999(percentile(99.9))
+                        .max(latency.getMaxValue() / 1000.0)
+                        .mean(latency.getTotalCount() == 0 ? 0 : latency.getMean() / 1000.0)
+                        .build())
+                .errorsByCause(causes)
+                .build();
+    }
+
+    private double percentile(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
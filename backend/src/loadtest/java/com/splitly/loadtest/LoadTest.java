@@ -0,0 +1,193 @@
+package com.splitly.loadtest;
+
+import com.splitly.SplitlyApplication;
+import com.splitly.auth.AuthenticationService;
+import com.splitly.auth.RegisterRequest;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Capacity check for the whole app: seeds users and expenses, then replays the operation mix
+ * at a fixed arrival rate and writes per-operation throughput, latency percentiles and errors
+ * as JSON. Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rate=400"}.
+ * Without --base-url the app is started in-process on the embedded H2 database.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.getBaseUrl();
+        if (baseUrl == null || baseUrl.isBlank()) {
+            context = new SpringApplicationBuilder(SplitlyApplication.class)
+                    .run("--server.port=0", "--logging.level.root=WARN",
+                            "--security.rate-limit.enabled=false"); // the harness is the only client, limits would cap the rate
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        try {
+            ApiClient api = new ApiClient(baseUrl);
+            Workload workload = new Workload(api, options);
+
+            Function<RegisterRequest, String> register = context != null
+                    ? registerInProcess(context.getBean(AuthenticationService.class))
+                    : registerOverHttp(api);
+
+            long seedStart = System.nanoTime();
+            workload.seed(register);
+            double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+            System.out.printf("Seeded %d users and %d expenses in %.1fs%n", options.getUsers(), options.getExpenses(), seedSeconds);
+
+            if (!options.getWarmup().isZero()) drive(workload, options, options.getWarmup());
+
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+            Map<Operation, EndpointStats> stats = drive(workload, options, options.getDuration());
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            LoadTestReport report = report(options, baseUrl, startedAt, seedSeconds, seconds, stats);
+            if (options.getReport().getParent() != null) Files.createDirectories(options.getReport().getParent());
+            ApiClient.JSON.writerWithDefaultPrettyPrinter().writeValue(options.getReport().toFile(), report);
+
+            print(report);
+            System.out.println("Report written to " + options.getReport().toAbsolutePath());
+        } finally {
+            if (context != null) context.close();
+        }
+    }
+
+    /**
+     * Open loop: request i is due at start + i / rate no matter how long earlier ones take, and
+     * its latency is measured from that moment. A slow server therefore shows up as latency
+     * instead of quietly lowering the rate. At most max-in-flight requests run at once.
+     */
+    static Map<Operation, EndpointStats> drive(Workload workload, LoadTestOptions options, Duration duration) throws InterruptedException {
+
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        options.getMix().keySet().forEach(operation -> stats.put(operation, new EndpointStats()));
+        Operation[] weighted = options.getMix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long requests = duration.toNanos() / interval;
+        Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + i * interval;
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        run(workload, operation, due, stats.get(operation));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    private static void run(Workload workload, Operation operation, long due, EndpointStats stats) {
+        try {
+            HttpResponse<String> response = workload.execute(operation);
+            if (response == null) {
+                stats.skip();
+            } else if (ApiClient.ok(response)) {
+                stats.success(System.nanoTime() - due);
+            } else {
+                stats.failure(System.nanoTime() - due, "status " + response.statusCode());
+            }
+        } catch (Exception e) {
+            stats.failure(System.nanoTime() - due, e.getClass().getSimpleName());
+        }
+    }
+
+    private static Function<RegisterRequest, String> registerInProcess(AuthenticationService authenticationService) {
+        return request -> authenticationService.register(request).getToken();
+    }
+
+    private static Function<RegisterRequest, String> registerOverHttp(ApiClient api) {
+        return request -> {
+            try {
+                return ApiClient.body(api.send("POST", "/auth/register", null, request)).get("token").asText();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not register " + request.getUsername(), e);
+            }
+        };
+    }
+
+    private static LoadTestReport report(LoadTestOptions options, String baseUrl, Instant startedAt, double seedSeconds,
+                                         double seconds, Map<Operation, EndpointStats> stats) {
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", options.getUsers());
+        settings.put("expenses", options.getExpenses());
+        settings.put("fanOut", options.getFanOut());
+        settings.put("rate", options.getRate());
+        settings.put("maxInFlight", options.getMaxInFlight());
+        settings.put("warmup", options.getWarmup().toString());
+        settings.put("duration", options.getDuration().toString());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.getMix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        settings.put("mix", mix);
+
+        EndpointStats total = new EndpointStats();
+        Map<String, LoadTestReport.Endpoint> endpoints = new LinkedHashMap<>();
+        stats.forEach((operation, endpoint) -> {
+            endpoint.addTo(total);
+            endpoints.put(operation.key(), endpoint.toReport(seconds));
+        });
+
+        return LoadTestReport.builder()
+                .startedAt(startedAt)
+                .target(baseUrl)
+                .options(settings)
+                .seedSeconds(seedSeconds)
+                .seconds(seconds)
+                .total(total.toReport(seconds))
+                .endpoints(endpoints)
+                .build();
+    }
+
+    private static void print(LoadTestReport report) {
+
+        System.out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s%n", "", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+        report.getEndpoints().forEach((name, endpoint) -> printRow(name, endpoint));
+        printRow("total", report.getTotal());
+    }
+
+    private static void printRow(String name, LoadTestReport.Endpoint endpoint) {
+        LoadTestReport.Latency latency = endpoint.getLatencyMs();
+        System.out.printf("%-8s %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, endpoint.getThroughput(), endpoint.getErrors(),
+                latency.getP50(), latency.getP95(), latency.getP99(), latency.getP999(), latency.getMax());
+    }
+}
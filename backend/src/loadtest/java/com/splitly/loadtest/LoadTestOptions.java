@@ -0,0 +1,81 @@
+package com.splitly.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Harness settings, given as --name=value arguments, e.g.
+ * {@code --users=500 --expenses=10000 --fan-out=4 --rate=400 --duration=2m --mix=list=60,create=20,pay=20}.
+ */
+@Data
+public class LoadTestOptions {
+
+    public static final String DEFAULT_MIX = "login=5,list=40,create=15,update=10,pay=10,search=20";
+
+    // Blank starts the app in-process on the embedded H2 database from the test resources
+    private String baseUrl;
+
+    private int users = 200;
+    private int expenses = 2_000;
+    private int fanOut = 3;
+
+    // Requests per second, issued on schedule whether or not earlier ones have returned
+    private int rate = 200;
+    private int maxInFlight = 512;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Map<Operation, Integer> mix = parseMix(DEFAULT_MIX);
+
+    private long seed = 42;
+    private Path report = Path.of("target", "loadtest-report.json");
+
+    public static LoadTestOptions parse(String... args) {
+
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (arg.isBlank()) continue;
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Expected --name=value but got " + arg);
+
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url" -> options.setBaseUrl(value);
+                case "users" -> options.setUsers(Integer.parseInt(value));
+                case "expenses" -> options.setExpenses(Integer.parseInt(value));
+                case "fan-out" -> options.setFanOut(Integer.parseInt(value));
+                case "rate" -> options.setRate(Integer.parseInt(value));
+                case "max-in-flight" -> options.setMaxInFlight(Integer.parseInt(value));
+                case "warmup" -> options.setWarmup(DurationStyle.detectAndParse(value));
+                case "duration" -> options.setDuration(DurationStyle.detectAndParse(value));
+                case "mix" -> options.setMix(parseMix(value));
+                case "seed" -> options.setSeed(Long.parseLong(value));
+                case "report" -> options.setReport(Path.of(value));
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+
+        if (options.getUsers() < 2) throw new IllegalArgumentException("At least 2 users are needed to share expenses");
+        if (options.getFanOut() < 1 || options.getFanOut() >= options.getUsers()) throw new IllegalArgumentException("fan-out must be between 1 and users - 1");
+        if (options.getRate() < 1) throw new IllegalArgumentException("rate must be positive");
+        return options;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) throw new IllegalArgumentException("Mix entries look like list=40, got " + entry);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Mix weights must not be negative");
+            if (weight > 0) weights.put(Operation.fromKey(parts[0]), weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("The mix needs at least one operation");
+        return weights;
+    }
+}
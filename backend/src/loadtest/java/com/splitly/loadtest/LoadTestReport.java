@@ -0,0 +1,43 @@
+package com.splitly.loadtest;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+public class LoadTestReport {
+
+    private Instant startedAt;
+    private String target;
+    private Map<String, Object> options;
+    private double seedSeconds;
+    private double seconds;
+    private Endpoint total;
+    private Map<String, Endpoint> endpoints;
+
+    @Data
+    @Builder
+    public static class Endpoint {
+        private long requests;
+        private long errors;
+        private long skipped;
+        private double throughput;
+        private Latency latencyMs;
+        private Map<String, Long> errorsByCause;
+    }
+
+    // Measured from when the request was due to start, so time spent queued behind slow requests counts
+    @Data
+    @Builder
+    public static class Latency {
+        private double p50;
+        private double p95;
+        private double p99;
+        private double p999;
+        private double max;
+        private double mean;
+    }
+}
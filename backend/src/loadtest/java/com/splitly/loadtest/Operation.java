@@ -0,0 +1,20 @@
+package com.splitly.loadtest;
+
+import java.util.Locale;
+
+public enum Operation {
+    LOGIN,
+    LIST,
+    CREATE,
+    UPDATE,
+    PAY,
+    SEARCH;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Operation fromKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+}
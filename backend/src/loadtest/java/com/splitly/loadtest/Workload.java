@@ -0,0 +1,227 @@
+package com.splitly.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.splitly.auth.LoginRequest;
+import com.splitly.auth.RegisterRequest;
+import com.splitly.expense.ExpenseRequest;
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.SplitType;
+
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * The seeded users and expenses plus the operations the mix is made of. Each operation acts
+ * as a random seeded user; creates feed the pools that updates and payments draw from.
+ */
+class Workload {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Jamie", "Avery", "Quinn"};
+    private static final int SEED_CONCURRENCY = 32;
+
+    private final ApiClient api;
+    private final LoadTestOptions options;
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final Map<UUID, VirtualUser> usersById = new HashMap<>();
+
+    Workload(ApiClient api, LoadTestOptions options) {
+        this.api = api;
+        this.options = options;
+    }
+
+    static final class VirtualUser {
+        final String username;
+        final String firstName;
+        volatile UUID id;
+        volatile String token;
+        final List<OwnExpense> expenses = Collections.synchronizedList(new ArrayList<>());
+        final Queue<UUID> unpaidShares = new ConcurrentLinkedQueue<>();
+
+        VirtualUser(String username, String firstName) {
+            this.username = username;
+            this.firstName = firstName;
+        }
+    }
+
+    record OwnExpense(UUID id, List<UUID> participantIds) {
+    }
+
+    /**
+     * Registers the users through the given function, which returns a token, then creates the
+     * expenses through the API with fan-out other users on each.
+     */
+    void seed(Function<RegisterRequest, String> register) throws Exception {
+
+        Random random = new Random(options.getSeed());
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        for (int i = 0; i < options.getUsers(); i++) {
+            users.add(new VirtualUser("lt" + run + i, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]));
+        }
+
+        inParallel(users.size(), i -> {
+            VirtualUser user = users.get(i);
+            user.token = register.apply(RegisterRequest.builder()
+                    .username(user.username)
+                    .password(PASSWORD)
+                    .email(user.username + "@loadtest.local")
+                    .firstName(user.firstName)
+                    .lastName("Load")
+                    .build());
+            user.id = UUID.fromString(ApiClient.body(api.get("/users/" + user.username, user.token)).get("id").asText());
+        });
+        users.forEach(user -> usersById.put(user.id, user));
+
+        List<List<UUID>> participants = new ArrayList<>();
+        for (int i = 0; i < options.getExpenses(); i++) {
+            participants.add(pickParticipants(users.get(i % users.size()), random));
+        }
+
+        inParallel(options.getExpenses(), i ->
+                ApiClient.body(create(users.get(i % users.size()), participants.get(i), random(i))));
+    }
+
+    HttpResponse<String> execute(Operation operation) throws Exception {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+
+        return switch (operation) {
+            case LOGIN -> login(user);
+            case LIST -> api.get("/expenses/all?limit=20", user.token);
+            case CREATE -> create(user, pickParticipants(user, random), random);
+            case UPDATE -> update(user, random);
+            case PAY -> pay(user, random);
+            case SEARCH -> {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String query = name.substring(0, 2 + random.nextInt(name.length() - 1));
+                yield api.get("/users/search?query=" + URLEncoder.encode(query, StandardCharsets.UTF_8), user.token);
+            }
+        };
+    }
+
+    private HttpResponse<String> login(VirtualUser user) throws Exception {
+
+        HttpResponse<String> response = api.send("POST", "/auth/login", null, LoginRequest.builder()
+                .username(user.username)
+                .password(PASSWORD)
+                .build());
+        if (ApiClient.ok(response)) user.token = ApiClient.body(response).get("token").asText();
+        return response;
+    }
+
+    private HttpResponse<String> create(VirtualUser creator, List<UUID> participantIds, RandomGenerator random) throws Exception {
+
+        HttpResponse<String> response = api.send("POST", "/expenses", creator.token, expenseRequest(creator, participantIds, random));
+        if (!ApiClient.ok(response)) return response;
+
+        JsonNode expense = ApiClient.body(response);
+        creator.expenses.add(new OwnExpense(UUID.fromString(expense.get("id").asText()), participantIds));
+        for (JsonNode share : expense.get("shares")) {
+            if (!"UNPAID".equals(share.get("status").asText())) continue;
+            VirtualUser debtor = usersById.get(UUID.fromString(share.get("userId").asText()));
+            if (debtor != null) debtor.unpaidShares.add(UUID.fromString(share.get("shareId").asText()));
+        }
+        return response;
+    }
+
+    // Same participants, new amount and title; returns null when the user has nothing to edit yet
+    private HttpResponse<String> update(VirtualUser user, RandomGenerator random) throws Exception {
+
+        OwnExpense expense;
+        synchronized (user.expenses) {
+            if (user.expenses.isEmpty()) return null;
+            expense = user.expenses.get(random.nextInt(user.expenses.size()));
+        }
+        return api.send("PUT", "/expenses/" + expense.id(), user.token, expenseRequest(user, expense.participantIds(), random));
+    }
+
+    // Pays one of the user's open shares, or another user's when this one has none left
+    private HttpResponse<String> pay(VirtualUser user, RandomGenerator random) throws Exception {
+
+        for (int attempt = 0; attempt < 8; attempt++) {
+            UUID shareId = user.unpaidShares.poll();
+            if (shareId != null) return api.send("PATCH", "/expenses/share/" + shareId + "/pay", user.token, null);
+            user = users.get(random.nextInt(users.size()));
+        }
+        return null;
+    }
+
+    private ExpenseRequest expenseRequest(VirtualUser creator, List<UUID> participantIds, RandomGenerator random) {
+
+        List<ExpenseRequest.Share> shares = new ArrayList<>();
+        shares.add(ExpenseRequest.Share.builder().userId(creator.id).amountOwed(BigDecimal.ZERO).build());
+        participantIds.forEach(id -> shares.add(ExpenseRequest.Share.builder().userId(id).amountOwed(BigDecimal.ZERO).build()));
+
+        return ExpenseRequest.builder()
+                .title("Load test " + random.nextInt(10_000))
+                .amount(BigDecimal.valueOf(1_000 + random.nextInt(20_000), 2))
+                .category(Category.values()[random.nextInt(Category.values().length)])
+                .paymentMethod(PaymentMethod.values()[random.nextInt(PaymentMethod.values().length)])
+                .date(LocalDate.now().minusDays(random.nextInt(365)))
+                .splitType(SplitType.EQUAL)
+                .shares(shares)
+                .build();
+    }
+
+    private List<UUID> pickParticipants(VirtualUser creator, RandomGenerator random) {
+
+        List<UUID> picked = new ArrayList<>(options.getFanOut());
+        while (picked.size() < options.getFanOut()) {
+            VirtualUser other = users.get(random.nextInt(users.size()));
+            if (other != creator && !picked.contains(other.id)) picked.add(other.id);
+        }
+        return picked;
+    }
+
+    private RandomGenerator random(int index) {
+        return new Random(options.getSeed() + index);
+    }
+
+    private interface SeedStep {
+        void run(int index) throws Exception;
+    }
+
+    private static void inParallel(int count, SeedStep step) throws Exception {
+
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<Future<?>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        step.run(index);
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) future.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.splitly.analytics;
+
+import com.splitly.user.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.Locale;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final SpendingRollupService spendingRollupService;
+
+    // from and to are months (yyyy-MM), both inclusive
+    @GetMapping("/spending")
+    public ResponseEntity<SpendingResponse> getSpending(@AuthenticationPrincipal AuthenticatedUser user,
+                                                        @RequestParam(defaultValue = "category") String groupBy,
+                                                        @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                        @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to){
+
+        SpendingGroupBy grouping = switch(groupBy.toLowerCase(Locale.ROOT)){
+            case "category" -> SpendingGroupBy.CATEGORY;
+            case "month" -> SpendingGroupBy.MONTH;
+            case "paymentmethod", "payment_method" -> SpendingGroupBy.PAYMENT_METHOD;
+            default -> throw new IllegalArgumentException("Unknown groupBy: " + groupBy);
+        };
+
+        return ResponseEntity.ok(spendingRollupService.getSpending(user, grouping, from, to));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild(){
+
+        return ResponseEntity.ok(Map.of("rows", spendingRollupService.rebuild()));
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ProblemDetail> conflict(ConcurrencyFailureException e){
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                        "Spending changed during the rebuild; try again"));
+    }
+}
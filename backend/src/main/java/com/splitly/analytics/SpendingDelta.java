@@ -0,0 +1,69 @@
+package com.splitly.analytics;
+
+import com.splitly.expense.Expense;
+import com.splitly.expense.ExpenseShare;
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pending rollup changes, netted per (user, category, month, payment method). Subtract an
+ * expense before editing it and add it back afterwards: rows whose totals didn't change
+ * cancel out and are never written.
+ */
+public class SpendingDelta {
+
+    private final Map<Key, Totals> totals = new HashMap<>();
+
+    public SpendingDelta add(Expense expense){
+        return collect(expense, 1);
+    }
+
+    public SpendingDelta subtract(Expense expense){
+        return collect(expense, -1);
+    }
+
+    private SpendingDelta collect(Expense expense, int sign){
+
+        LocalDate month = expense.getDate().withDayOfMonth(1);
+
+        for(ExpenseShare share : expense.getShares()){
+            if(share.getAmountOwed() == null) continue;
+
+            BigDecimal amount = sign > 0 ? share.getAmountOwed() : share.getAmountOwed().negate();
+            Key key = new Key(share.getUser().getId(), expense.getCategory(), month, expense.getPaymentMethod());
+
+            totals.merge(key, new Totals(amount, sign), Totals::plus);
+        }
+        return this;
+    }
+
+    Map<Key, Totals> totals(){
+        return totals;
+    }
+
+    record Key(UUID userId, Category category, LocalDate month, PaymentMethod paymentMethod) {
+
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::userId)
+                .thenComparing(Key::category)
+                .thenComparing(Key::month)
+                .thenComparing(Key::paymentMethod);
+    }
+
+    record Totals(BigDecimal amount, long count) {
+
+        Totals plus(Totals other){
+            return new Totals(amount.add(other.amount), count + other.count);
+        }
+
+        boolean isZero(){
+            return amount.signum() == 0 && count == 0;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.splitly.analytics;
+
+public enum SpendingGroupBy {
+
+    CATEGORY,
+    MONTH,
+    PAYMENT_METHOD
+}
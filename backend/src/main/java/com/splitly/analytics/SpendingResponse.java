@@ -0,0 +1,32 @@
+package com.splitly.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpendingResponse {
+
+    private SpendingGroupBy groupBy;
+    private YearMonth from;
+    private YearMonth to;
+    private BigDecimal total;
+
+    @Data
+    @Builder
+    public static class Bucket {
+        private String key;            // category / payment method name, or yyyy-MM
+        private BigDecimal amount;
+        private long expenseCount;
+    }
+
+    private List<Bucket> buckets;
+}
@@ -0,0 +1,55 @@
+package com.splitly.analytics;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A user's own share of spending for one category, month and payment method. Kept up to
+ * date with deltas by {@link SpendingRollupService} in the same transaction as the
+ * expense change, so analytics read a few dozen of these rows instead of the history.
+ */
+@Data
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "spending_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "category", "month_start", "payment_method"}))
+public class SpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    // First day of the month
+    @Column(name = "month_start", nullable = false)
+    private LocalDate month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private long expenseCount;
+}
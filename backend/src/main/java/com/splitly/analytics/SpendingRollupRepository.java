@@ -0,0 +1,59 @@
+package com.splitly.analytics;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, UUID> {
+
+    @Modifying
+    @Query("""
+            update SpendingRollup r set r.amount = r.amount + :amount, r.expenseCount = r.expenseCount + :count
+            where r.user.id = :userId and r.category = :category and r.month = :month and r.paymentMethod = :paymentMethod
+            """)
+    int addToRollup(@Param("userId") UUID userId,
+                    @Param("category") Category category,
+                    @Param("month") LocalDate month,
+                    @Param("paymentMethod") PaymentMethod paymentMethod,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") long count);
+
+    // Creates the row with the given totals unless another transaction already has; 0 means it lost that race
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = """
+            insert into spending_rollups (id, user_id, category, month_start, payment_method, amount, expense_count)
+            values (:id, :userId, :category, :month, :paymentMethod, :amount, :count)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertRollupIfAbsent(@Param("id") UUID id,
+                             @Param("userId") UUID userId,
+                             @Param("category") String category,
+                             @Param("month") LocalDate month,
+                             @Param("paymentMethod") String paymentMethod,
+                             @Param("amount") BigDecimal amount,
+                             @Param("count") long count);
+
+    @Query("""
+            select r from SpendingRollup r
+            where r.user.id = :userId and r.month between :from and :to and r.expenseCount > 0
+            """)
+    List<SpendingRollup> findByUserIdAndMonthBetween(@Param("userId") UUID userId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from SpendingRollup r")
+    int deleteAllInBulk();
+}
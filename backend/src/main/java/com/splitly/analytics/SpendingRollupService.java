@@ -0,0 +1,151 @@
+package com.splitly.analytics;
+
+import com.splitly.archive.ArchivedShareRepository;
+import com.splitly.expense.Expense;
+import com.splitly.expense.ExpenseShareRepository;
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.user.UserRepository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class SpendingRollupService {
+
+    private static final YearMonth EARLIEST = YearMonth.of(1900, 1);
+    private static final YearMonth LATEST = YearMonth.of(9999, 12);
+
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final ArchivedShareRepository archivedShareRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public void recordExpenses(Collection<Expense> expenses){
+
+        SpendingDelta delta = new SpendingDelta();
+        expenses.forEach(delta::add);
+        apply(delta);
+    }
+
+    @Transactional
+    public void reverseExpense(Expense expense){
+
+        apply(new SpendingDelta().subtract(expense));
+    }
+
+    @Transactional
+    public void apply(SpendingDelta delta){
+
+        // Sorted so concurrent writers lock the rows in the same order
+        delta.totals().entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .sorted(Map.Entry.comparingByKey(SpendingDelta.Key.ORDER))
+                .forEach(entry -> apply(entry.getKey(), entry.getValue()));
+    }
+
+    // Update first since the row usually exists; a first write inserts it, and one that loses the insert race updates the winner's row
+    private void apply(SpendingDelta.Key key, SpendingDelta.Totals totals){
+
+        if(addToRollup(key, totals) > 0) return;
+
+        int inserted = spendingRollupRepository.insertRollupIfAbsent(UUID.randomUUID(), key.userId(), key.category().name(),
+                key.month(), key.paymentMethod().name(), totals.amount(), totals.count());
+
+        if(inserted == 0) addToRollup(key, totals);
+    }
+
+    private int addToRollup(SpendingDelta.Key key, SpendingDelta.Totals totals){
+
+        return spendingRollupRepository.addToRollup(key.userId(), key.category(), key.month(),
+                key.paymentMethod(), totals.amount(), totals.count());
+    }
+
+    @Transactional(readOnly = true)
+    public SpendingResponse getSpending(AuthenticatedUser user, SpendingGroupBy groupBy, YearMonth from, YearMonth to){
+
+        YearMonth start = from != null ? from : EARLIEST;
+        YearMonth end = to != null ? to : LATEST;
+        if(start.isAfter(end)) throw new IllegalArgumentException("'from' must not be after 'to'");
+
+        Function<SpendingRollup, String> keyOf = switch(groupBy){
+            case CATEGORY -> rollup -> rollup.getCategory().name();
+            case MONTH -> rollup -> YearMonth.from(rollup.getMonth()).toString();
+            case PAYMENT_METHOD -> rollup -> rollup.getPaymentMethod().name();
+        };
+
+        Map<String, SpendingResponse.Bucket> buckets = new TreeMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+
+        for(SpendingRollup rollup : spendingRollupRepository.findByUserIdAndMonthBetween(
+                user.getId(), start.atDay(1), end.atDay(1))){
+
+            SpendingResponse.Bucket bucket = buckets.computeIfAbsent(keyOf.apply(rollup),
+                    key -> SpendingResponse.Bucket.builder().key(key).amount(BigDecimal.ZERO).build());
+
+            bucket.setAmount(bucket.getAmount().add(rollup.getAmount()));
+            bucket.setExpenseCount(bucket.getExpenseCount() + rollup.getExpenseCount());
+            total = total.add(rollup.getAmount());
+        }
+
+        return SpendingResponse.builder()
+                .groupBy(groupBy)
+                .from(from)
+                .to(to)
+                .total(total)
+                .buckets(new ArrayList<>(buckets.values()))
+                .build();
+    }
+
+    // Replaces every rollup row with totals recomputed from the shares table; returns the row count.
+    // Serializable so an expense committed mid-rebuild fails the rebuild rather than losing its delta
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public int rebuild(){
+
+        spendingRollupRepository.deleteAllInBulk();
+
+        // Archived expenses still count towards spending, so their sums are folded into the same rows
+        Map<List<Object>, SpendingRollup> rollups = new LinkedHashMap<>();
+        Stream.concat(expenseShareRepository.sumSpendingByUserCategoryMonth().stream(),
+                        archivedShareRepository.sumSpendingByUserCategoryMonth().stream())
+                .forEach(row -> {
+                    LocalDate month = LocalDate.of(((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 1);
+                    BigDecimal amount = row[5] != null ? (BigDecimal) row[5] : BigDecimal.ZERO;
+                    long count = ((Number) row[6]).longValue();
+
+                    rollups.merge(List.of(row[0], row[1], month, row[4]), SpendingRollup.builder()
+                                    .user(userRepository.getReferenceById((UUID) row[0]))
+                                    .category((Category) row[1])
+                                    .month(month)
+                                    .paymentMethod((PaymentMethod) row[4])
+                                    .amount(amount)
+                                    .expenseCount(count)
+                                    .build(),
+                            (existing, archived) -> {
+                                existing.setAmount(existing.getAmount().add(archived.getAmount()));
+                                existing.setExpenseCount(existing.getExpenseCount() + archived.getExpenseCount());
+                                return existing;
+                            });
+                });
+
+        spendingRollupRepository.saveAll(rollups.values());
+        return rollups.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.splitly.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/archive")
+public class ArchiveController {
+
+    private final ExpenseArchiveJob expenseArchiveJob;
+
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Integer>> run(){
+
+        return ResponseEntity.ok(Map.of("archived", expenseArchiveJob.run(LocalDate.now())));
+    }
+}
@@ -0,0 +1,77 @@
+package com.splitly.archive;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A settled expense moved out of {@code expenses} by {@link ExpenseArchiveJob}. Same columns
+ * and attribute names as Expense so the search specifications apply to both; rows are never
+ * updated once written.
+ */
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "archived_expenses",
+        indexes = @Index(name = "idx_archived_expenses_user_date", columnList = "user_id, date, uuid"))
+public class ArchivedExpense {
+
+    @Id
+    private UUID uuid;
+
+    @Column
+    private String title;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User creator;
+
+    @Builder.Default
+    @OneToMany(mappedBy = "expense")
+    private List<ArchivedShare> shares = new ArrayList<>();
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "recurring_expense_id")
+    private UUID recurringExpenseId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
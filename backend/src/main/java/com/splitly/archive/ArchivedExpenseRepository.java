@@ -0,0 +1,107 @@
+package com.splitly.archive;
+
+import com.splitly.expense.Expense;
+import com.splitly.expense.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ArchivedExpenseRepository extends JpaRepository<ArchivedExpense, UUID> {
+
+    // Feed pages over the archive, same shape as ExpenseRepository.findFeedKeys
+    @Query("""
+            select a.uuid, a.date from ArchivedExpense a
+            where exists (select 1 from ArchivedShare s where s.expense = a and s.user.id = :userId)
+            order by a.date desc, a.uuid desc
+            """)
+    List<Object[]> findFeedKeys(@Param("userId") UUID userId, Limit limit);
+
+    @Query("""
+            select a.uuid, a.date from ArchivedExpense a
+            where exists (select 1 from ArchivedShare s where s.expense = a and s.user.id = :userId)
+              and (a.date < :date or (a.date = :date and a.uuid < :uuid))
+            order by a.date desc, a.uuid desc
+            """)
+    List<Object[]> findFeedKeysAfter(@Param("userId") UUID userId,
+                                     @Param("date") LocalDate date,
+                                     @Param("uuid") UUID uuid,
+                                     Limit limit);
+
+    @EntityGraph(attributePaths = {"creator", "shares", "shares.user"})
+    List<ArchivedExpense> findByUuidIn(Collection<UUID> uuids);
+
+    @EntityGraph(attributePaths = {"creator", "shares", "shares.user"})
+    Optional<ArchivedExpense> findWithSharesByUuid(UUID uuid);
+
+    // Archivable expenses in (date, uuid) order: older than the cutoff with no share left to pay
+    @Query("""
+            select e.uuid, e.date from Expense e
+            where e.date < :cutoff
+              and not exists (select 1 from ExpenseShare s where s.expense = e and s.status <> :paid)
+            order by e.date, e.uuid
+            """)
+    List<Object[]> findArchivable(@Param("cutoff") LocalDate cutoff, @Param("paid") PaymentStatus paid, Limit limit);
+
+    @Query("""
+            select e.uuid, e.date from Expense e
+            where e.date < :cutoff
+              and (e.date > :date or (e.date = :date and e.uuid > :uuid))
+              and not exists (select 1 from ExpenseShare s where s.expense = e and s.status <> :paid)
+            order by e.date, e.uuid
+            """)
+    List<Object[]> findArchivableAfter(@Param("cutoff") LocalDate cutoff,
+                                       @Param("paid") PaymentStatus paid,
+                                       @Param("date") LocalDate date,
+                                       @Param("uuid") UUID uuid,
+                                       Limit limit);
+
+    // Holds off concurrent edits of the chunk until it has moved; an edit that got in first is seen by the re-check below
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Expense e where e.uuid in :ids")
+    List<Expense> lockExpenses(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("""
+            insert into ArchivedExpense (uuid, title, amount, category, creator, date, description, paymentMethod,
+                                         recurringExpenseId, createdAt, updatedAt, version, archivedAt)
+            select e.uuid, e.title, e.amount, e.category, e.creator, e.date, e.description, e.paymentMethod,
+                   e.recurringExpenseId, e.createdAt, e.updatedAt, e.version, :archivedAt
+            from Expense e
+            where e.uuid in :ids
+              and e.date < :cutoff
+              and not exists (select 1 from ExpenseShare s where s.expense = e and s.status <> :paid)
+            """)
+    int copyExpenses(@Param("ids") Collection<UUID> ids,
+                     @Param("cutoff") LocalDate cutoff,
+                     @Param("paid") PaymentStatus paid,
+                     @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("""
+            insert into ArchivedShare (id, amountOwed, status, expense, user, version)
+            select s.id, s.amountOwed, s.status, a, s.user, s.version
+            from ExpenseShare s join ArchivedExpense a on a.uuid = s.expense.uuid
+            where a.uuid in :ids
+            """)
+    int copyShares(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from ExpenseShare s where s.expense.uuid in (select a.uuid from ArchivedExpense a where a.uuid in :ids)")
+    int deleteArchivedShares(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from Expense e where e.uuid in (select a.uuid from ArchivedExpense a where a.uuid in :ids)")
+    int deleteArchivedExpenses(@Param("ids") Collection<UUID> ids);
+}
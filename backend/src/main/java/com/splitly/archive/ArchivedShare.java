@@ -0,0 +1,45 @@
+package com.splitly.archive;
+
+import com.splitly.expense.enums.PaymentStatus;
+import com.splitly.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "archived_shares", indexes = {
+        @Index(name = "idx_archived_shares_user", columnList = "user_id, status, expense_id"),
+        @Index(name = "idx_archived_shares_expense", columnList = "expense_id")
+})
+public class ArchivedShare {
+
+    @Id
+    private UUID id;
+
+    @Column
+    private BigDecimal amountOwed;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "expense_id", nullable = false)
+    private ArchivedExpense expense;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,54 @@
+package com.splitly.archive;
+
+import com.splitly.expense.ExpenseExportService;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ArchivedShareRepository extends JpaRepository<ArchivedShare, UUID> {
+
+    // Archive side of ExpenseShareRepository.streamHistory
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + ExpenseExportService.CHUNK_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select s from ArchivedShare s
+            join fetch s.expense e
+            join fetch e.creator
+            join fetch s.user
+            where s.user.id = :userId and e.date between :from and :to
+            order by e.date desc, e.uuid desc
+            """)
+    Stream<ArchivedShare> streamHistory(@Param("userId") UUID userId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    // Archive side of ExpenseShareRepository.sumSpendingByUserCategoryMonth
+    @Query("""
+            select s.user.id, e.category, year(e.date), month(e.date), e.paymentMethod, sum(s.amountOwed), count(s)
+            from ArchivedShare s join s.expense e
+            group by s.user.id, e.category, year(e.date), month(e.date), e.paymentMethod
+            """)
+    List<Object[]> sumSpendingByUserCategoryMonth();
+
+    // Archive side of ExpenseShareRepository.findCoParticipants
+    @Query("""
+            select s.user.id from ArchivedShare s join s.expense e
+            where s.user.id in :userIds
+              and (e.creator.id = :userId or exists (select 1 from ArchivedShare r where r.expense = e and r.user.id = :userId))
+            union
+            select e.creator.id from ArchivedShare r join r.expense e
+            where r.user.id = :userId and e.creator.id in :userIds
+            """)
+    List<UUID> findCoParticipants(@Param("userId") UUID userId, @Param("userIds") Collection<UUID> userIds);
+}
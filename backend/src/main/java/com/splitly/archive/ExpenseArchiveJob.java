@@ -0,0 +1,90 @@
+package com.splitly.archive;
+
+import com.splitly.expense.enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves settled history out of the hot tables: expenses dated before the cutoff whose shares
+ * are all PAID are copied to archived_expenses / archived_shares and deleted, one chunk per
+ * transaction, walking the candidates in (date, uuid) order. Settled shares carry no balance
+ * and the spending rollups keep their totals, so nothing else changes; reads fall back to the
+ * archive (see ExpensePages).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpenseArchiveJob {
+
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${archive.cron:0 0 4 * * *}")
+    public void scheduledRun(){
+
+        if(enabled) run(LocalDate.now());
+    }
+
+    // Returns the number of expenses archived
+    public int run(LocalDate today){
+
+        long started = System.nanoTime();
+        LocalDate cutoff = today.minusDays(minAgeDays);
+        int archived = 0;
+        int chunks = 0;
+        Object[] after = null;
+
+        while(true){
+            List<Object[]> candidates = after == null
+                    ? archivedExpenseRepository.findArchivable(cutoff, PaymentStatus.PAID, Limit.of(chunkSize))
+                    : archivedExpenseRepository.findArchivableAfter(cutoff, PaymentStatus.PAID, (LocalDate) after[1], (UUID) after[0], Limit.of(chunkSize));
+
+            if(candidates.isEmpty()) break;
+
+            archived += archive(candidates.stream().map(row -> (UUID) row[0]).toList(), cutoff);
+            after = candidates.get(candidates.size() - 1);
+            chunks++;
+        }
+
+        log.info("Archive: moved {} expenses older than {} in {} chunks ({} ms)", archived, cutoff, chunks, (System.nanoTime() - started) / 1_000_000);
+        return archived;
+    }
+
+    private int archive(List<UUID> ids, LocalDate cutoff){
+
+        Integer moved = transactionTemplate.execute(status -> {
+
+            archivedExpenseRepository.lockExpenses(ids);
+
+            // Re-checked under the lock: a share added or reopened since the candidate query keeps its expense hot
+            int expenses = archivedExpenseRepository.copyExpenses(ids, cutoff, PaymentStatus.PAID, LocalDateTime.now());
+            if(expenses == 0) return 0;
+
+            archivedExpenseRepository.copyShares(ids);
+            archivedExpenseRepository.deleteArchivedShares(ids);
+            archivedExpenseRepository.deleteArchivedExpenses(ids);
+            return expenses;
+        });
+
+        return moved != null ? moved : 0;
+    }
+}
@@ -1,12 +1,19 @@
 package com.splitly.auth;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+// Hashing happens on PasswordHashingExecutor, so the request thread is released while it runs
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -15,14 +22,25 @@ public class AuthenticationController {
     private final AuthenticationService authenticationService;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthenticationResponse> register(@RequestBody RegisterRequest registerRequest) {
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> register(@RequestBody RegisterRequest registerRequest) {
 
-        return ResponseEntity.ok(authenticationService.register(registerRequest));
+        return submit(() -> authenticationService.registerAsync(registerRequest));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> login(@RequestBody LoginRequest loginRequest){
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> login(@RequestBody LoginRequest loginRequest){
+
+        return submit(() -> authenticationService.loginAsync(loginRequest));
+    }
+
+    private static CompletableFuture<ResponseEntity<AuthenticationResponse>> submit(Supplier<CompletableFuture<AuthenticationResponse>> task){
 
-        return ResponseEntity.ok(authenticationService.login(loginRequest));
+        try{
+            return task.get().thenApply(ResponseEntity::ok);
+        }catch (RejectedExecutionException e){
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build());
+        }
     }
 }
@@ -1,42 +1,103 @@
 package com.splitly.auth;
 
 import com.splitly.security.JwtService;
+import com.splitly.security.PasswordHashingExecutor;
 import com.splitly.user.Role;
 import com.splitly.user.User;
 import com.splitly.user.UserRepository;
+import com.splitly.user.UserSearchIndex;
+import com.splitly.version.DataVersionService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
 
+    private static final AccountStatusUserDetailsChecker ACCOUNT_STATUS = new AccountStatusUserDetailsChecker();
+
     private final UserRepository userRepository;
+    private final UserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final UserSearchIndex userSearchIndex;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    // Named for the bean, since the task scheduler is an AsyncTaskExecutor too
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final DataVersionService dataVersionService;
+
+    // Checked against for unknown usernames, so they cost the same BCrypt work as a wrong password
+    private volatile String unknownUserHash;
+
+    /*
+     * Only the BCrypt call runs on the bounded hashing pool, which throws RejectedExecutionException
+     * when it is full. Lookups run on the calling thread and the writes after hashing on the task
+     * executor, so the CPU-sized pool never waits on JDBC.
+     */
+    public CompletableFuture<AuthenticationResponse> registerAsync(RegisterRequest registerRequest){
+
+        checkAvailable(registerRequest);
+
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(registerRequest.getPassword()), passwordHashingExecutor)
+                .thenApplyAsync(password -> createUser(registerRequest, password), applicationTaskExecutor);
+    }
+
+    public CompletableFuture<AuthenticationResponse> loginAsync(LoginRequest loginRequest){
+
+        UserDetails user = findUser(loginRequest.getUsername());
+
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(loginRequest.getPassword(),
+                        user != null ? user.getPassword() : unknownUserHash()), passwordHashingExecutor)
+                .thenApplyAsync(matches -> {
+                    if(user == null || !matches) throw new BadCredentialsException("Bad credentials");
+                    ACCOUNT_STATUS.check(user);
+
+                    return AuthenticationResponse.builder()
+                            .token(jwtService.generateToken(user))
+                            .build();
+                }, applicationTaskExecutor);
+    }
 
     public AuthenticationResponse register(RegisterRequest registerRequest){
 
+        checkAvailable(registerRequest);
+        return createUser(registerRequest, passwordEncoder.encode(registerRequest.getPassword()));
+    }
+
+    private void checkAvailable(RegisterRequest registerRequest){
+
         if(userRepository.findByUsername(registerRequest.getUsername()).isPresent() ||
             userRepository.findByEmail(registerRequest.getEmail()).isPresent()){
 
             throw new IllegalStateException("Username or email is already taken!");
         }
+    }
+
+    private AuthenticationResponse createUser(RegisterRequest registerRequest, String encodedPassword){
 
         var user = User.builder()
                 .firstName(registerRequest.getFirstName())
                 .lastName(registerRequest.getLastName())
                 .username(registerRequest.getUsername())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(encodedPassword)
                 .email(registerRequest.getEmail())
                 .role(Role.USER)
                 .build();
 
         userRepository.save(user);
+        userSearchIndex.add(user);
+        dataVersionService.bump(List.of(user.getId()));
 
         var jwtToken = jwtService.generateToken(user);
 
@@ -45,19 +106,20 @@ public class AuthenticationService {
                 .build();
     }
 
-    public AuthenticationResponse login(LoginRequest loginRequest){
-
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(),loginRequest.getPassword())
-        );
+    // Same lookup the authentication provider makes, through the principal cache
+    private UserDetails findUser(String username){
 
-        var user = userRepository.findByUsername(loginRequest.getUsername())
-                .orElseThrow(() -> new IllegalStateException("User not found"));
+        try{
+            return userDetailsService.loadUserByUsername(username);
+        }catch (UsernameNotFoundException e){
+            return null;
+        }
+    }
 
-        var jwtToken = jwtService.generateToken(user);
+    private String unknownUserHash(){
 
-        return AuthenticationResponse.builder()
-                .token(jwtToken)
-                .build();
+        String hash = unknownUserHash;
+        if(hash == null) unknownUserHash = hash = passwordEncoder.encode(UUID.randomUUID().toString());
+        return hash;
     }
 }
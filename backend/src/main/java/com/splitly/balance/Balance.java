@@ -0,0 +1,41 @@
+package com.splitly.balance;
+
+import com.splitly.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Running total of what {@code debtor} owes {@code creditor} across all UNPAID shares.
+ * Maintained as deltas by {@link BalanceService} whenever shares change.
+ */
+@Data
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "balances",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"debtor_id", "creditor_id"}),
+        indexes = @Index(name = "idx_balances_creditor", columnList = "creditor_id"))
+public class Balance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "debtor_id", nullable = false)
+    private User debtor;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "creditor_id", nullable = false)
+    private User creditor;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+}
@@ -0,0 +1,46 @@
+package com.splitly.balance;
+
+import com.splitly.user.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/balances")
+public class BalanceController {
+
+    private final BalanceService balanceService;
+    private final BalanceLedgerJob balanceLedgerJob;
+
+    @GetMapping
+    public ResponseEntity<BalanceResponse> getBalances(@AuthenticationPrincipal AuthenticatedUser user){
+
+        return ResponseEntity.ok(balanceService.getBalances(user));
+    }
+
+    @GetMapping("/verify")
+    public ResponseEntity<BalanceDriftReport> verify(){
+
+        return ResponseEntity.ok(balanceLedgerJob.run(false));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<BalanceDriftReport> rebuild(){
+
+        return ResponseEntity.ok(balanceLedgerJob.run(true));
+    }
+
+    // A write committed while the rebuild ran; nothing was changed, so the caller can simply retry
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ProblemDetail> conflict(ConcurrencyFailureException e){
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                        "Balances changed during the rebuild; try again"));
+    }
+}
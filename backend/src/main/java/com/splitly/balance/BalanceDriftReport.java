@@ -0,0 +1,31 @@
+package com.splitly.balance;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceDriftReport {
+
+    private int pairsChecked;
+    private boolean rebuilt;
+
+    @Data
+    @Builder
+    public static class Drift {
+        private UUID debtorId;
+        private UUID creditorId;
+        private BigDecimal expected; // recomputed from UNPAID shares
+        private BigDecimal actual;   // currently stored in the ledger
+    }
+
+    private List<Drift> drifts;
+}
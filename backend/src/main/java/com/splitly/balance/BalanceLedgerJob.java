@@ -0,0 +1,92 @@
+package com.splitly.balance;
+
+import com.splitly.expense.ExpenseShareRepository;
+import com.splitly.expense.enums.PaymentStatus;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recomputes the balance ledger from the shares table and compares it with what
+ * the incremental updates produced. Runs nightly in verify-only mode; a rebuild
+ * replaces the ledger with the recomputed values.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceLedgerJob {
+
+    private final BalanceRepository balanceRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final BalanceService balanceService;
+
+    @Scheduled(cron = "${balances.verify-cron:0 30 3 * * *}")
+    public void scheduledVerify(){
+
+        BalanceDriftReport report = run(false);
+
+        if(!report.getDrifts().isEmpty()){
+            log.warn("Balance ledger drift detected on {} of {} pairs", report.getDrifts().size(), report.getPairsChecked());
+        }
+    }
+
+    // One snapshot for the shares, the ledger and the rebuild: a write that commits after it makes
+    // the rebuild fail with a serialization error instead of being deleted, and verify never
+    // compares shares and balances from different moments
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public BalanceDriftReport run(boolean rebuild){
+
+        Map<Pair, BigDecimal> expected = new HashMap<>();
+        for(Object[] row : expenseShareRepository.sumByDebtorAndCreditor(PaymentStatus.UNPAID)){
+            expected.put(new Pair((UUID) row[0], (UUID) row[1]), (BigDecimal) row[2]);
+        }
+
+        Map<Pair, BigDecimal> actual = new HashMap<>();
+        for(Object[] row : balanceRepository.findAllOpenPairs()){
+            actual.put(new Pair((UUID) row[0], (UUID) row[1]), (BigDecimal) row[2]);
+        }
+
+        Set<Pair> pairs = new HashSet<>(expected.keySet());
+        pairs.addAll(actual.keySet());
+
+        List<BalanceDriftReport.Drift> drifts = new ArrayList<>();
+        for(Pair pair : pairs){
+            BigDecimal expectedAmount = expected.getOrDefault(pair, BigDecimal.ZERO);
+            BigDecimal actualAmount = actual.getOrDefault(pair, BigDecimal.ZERO);
+
+            if(expectedAmount.compareTo(actualAmount) != 0){
+                drifts.add(BalanceDriftReport.Drift.builder()
+                        .debtorId(pair.debtorId())
+                        .creditorId(pair.creditorId())
+                        .expected(expectedAmount)
+                        .actual(actualAmount)
+                        .build());
+            }
+        }
+
+        if(rebuild){
+            balanceRepository.deleteAllInBulk();
+            expected.forEach((pair, amount) -> balanceService.addToBalance(pair.debtorId(), pair.creditorId(), amount));
+        }
+
+        return BalanceDriftReport.builder()
+                .pairsChecked(pairs.size())
+                .rebuilt(rebuild)
+                .drifts(drifts)
+                .build();
+    }
+
+    private record Pair(UUID debtorId, UUID creditorId) {}
+}
@@ -0,0 +1,50 @@
+package com.splitly.balance;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface BalanceRepository extends JpaRepository<Balance, UUID> {
+
+    @Modifying
+    @Query("update Balance b set b.amount = b.amount + :delta where b.debtor.id = :debtorId and b.creditor.id = :creditorId")
+    int addToBalance(@Param("debtorId") UUID debtorId,
+                     @Param("creditorId") UUID creditorId,
+                     @Param("delta") BigDecimal delta);
+
+    // Creates the pair's row unless another transaction already has; 0 means it lost that race
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "balances"))
+    @Query(value = """
+            insert into balances (id, debtor_id, creditor_id, amount)
+            values (:id, :debtorId, :creditorId, :amount)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertBalanceIfAbsent(@Param("id") UUID id,
+                              @Param("debtorId") UUID debtorId,
+                              @Param("creditorId") UUID creditorId,
+                              @Param("amount") BigDecimal amount);
+
+    @Query("""
+            select b from Balance b
+            join fetch b.debtor
+            join fetch b.creditor
+            where (b.debtor.id = :userId or b.creditor.id = :userId) and b.amount <> 0
+            """)
+    List<Balance> findOpenByUserId(@Param("userId") UUID userId);
+
+    @Query("select b.debtor.id, b.creditor.id, b.amount from Balance b where b.amount <> 0")
+    List<Object[]> findAllOpenPairs();
+
+    @Modifying
+    @Query("delete from Balance b")
+    int deleteAllInBulk();
+}
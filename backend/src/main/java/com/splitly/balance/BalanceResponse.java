@@ -0,0 +1,30 @@
+package com.splitly.balance;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceResponse {
+
+    private BigDecimal totalOwedToYou;
+    private BigDecimal totalYouOwe;
+
+    @Data
+    @Builder
+    public static class CounterpartyBalance {
+        private UUID userId;
+        private String username;
+        private BigDecimal amount; // positive: they owe you, negative: you owe them
+    }
+
+    private List<CounterpartyBalance> balances;
+}
@@ -0,0 +1,146 @@
+package com.splitly.balance;
+
+import com.splitly.expense.Expense;
+import com.splitly.expense.ExpenseShare;
+import com.splitly.expense.ExpenseShareRepository;
+import com.splitly.expense.enums.PaymentStatus;
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.user.User;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+
+    private final BalanceRepository balanceRepository;
+
+    // Adds the UNPAID shares of an expense to the ledger (share user owes the creator)
+    @Transactional
+    public void recordShares(Expense expense, Collection<ExpenseShare> shares){
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        collectDeltas(deltas, expense.getCreator().getId(), shares, false);
+        applyDeltas(deltas);
+    }
+
+    // Takes the UNPAID shares of an expense back out of the ledger
+    @Transactional
+    public void reverseShares(Expense expense, Collection<ExpenseShare> shares){
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        collectDeltas(deltas, expense.getCreator().getId(), shares, true);
+        applyDeltas(deltas);
+    }
+
+    // Records many new expenses at once, touching each (debtor, creditor) row only once
+    @Transactional
+    public void recordExpenses(Collection<Expense> expenses){
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        for(Expense expense : expenses){
+            collectDeltas(deltas, expense.getCreator().getId(), expense.getShares(), false);
+        }
+        applyDeltas(deltas);
+    }
+
+    // Takes shares that were UNPAID until a bulk payment out of the ledger, one update per (debtor, creditor) pair
+    @Transactional
+    public void reversePaidShares(Collection<ExpenseShareRepository.PayableShare> shares){
+        Map<Pair, BigDecimal> deltas = new HashMap<>();
+        for(ExpenseShareRepository.PayableShare share : shares){
+            if(share.getDebtorId().equals(share.getCreditorId())) continue;
+            deltas.merge(new Pair(share.getDebtorId(), share.getCreditorId()), share.getAmountOwed().negate(), BigDecimal::add);
+        }
+        applyDeltas(deltas);
+    }
+
+    private void collectDeltas(Map<Pair, BigDecimal> deltas, UUID creditorId, Collection<ExpenseShare> shares, boolean negate){
+
+        for(ExpenseShare share : shares){
+            UUID debtorId = share.getUser().getId();
+
+            if(share.getStatus() != PaymentStatus.UNPAID || debtorId.equals(creditorId)) continue;
+
+            BigDecimal amount = negate ? share.getAmountOwed().negate() : share.getAmountOwed();
+            deltas.merge(new Pair(debtorId, creditorId), amount, BigDecimal::add);
+        }
+    }
+
+    // Sorted so concurrent writers lock the rows in the same order
+    private void applyDeltas(Map<Pair, BigDecimal> deltas){
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Pair.ORDER))
+                .forEach(entry -> addToBalance(entry.getKey().debtorId(), entry.getKey().creditorId(), entry.getValue()));
+    }
+
+    // Update first since the row usually exists; a first debt inserts it, and one that loses the insert race updates the winner's row
+    void addToBalance(UUID debtorId, UUID creditorId, BigDecimal delta){
+
+        if(delta.signum() == 0) return;
+
+        if(balanceRepository.addToBalance(debtorId, creditorId, delta) > 0) return;
+
+        int inserted = balanceRepository.insertBalanceIfAbsent(UUID.randomUUID(), debtorId, creditorId, delta);
+
+        if(inserted == 0) balanceRepository.addToBalance(debtorId, creditorId, delta);
+    }
+
+    @Transactional(readOnly = true)
+    public BalanceResponse getBalances(AuthenticatedUser user){
+
+        Map<UUID, BalanceResponse.CounterpartyBalance> byCounterparty = new LinkedHashMap<>();
+
+        for(Balance balance : balanceRepository.findOpenByUserId(user.getId())){
+
+            boolean iOwe = balance.getDebtor().getId().equals(user.getId());
+            User counterparty = iOwe ? balance.getCreditor() : balance.getDebtor();
+            BigDecimal amount = iOwe ? balance.getAmount().negate() : balance.getAmount();
+
+            byCounterparty.merge(counterparty.getId(),
+                    BalanceResponse.CounterpartyBalance.builder()
+                            .userId(counterparty.getId())
+                            .username(counterparty.getUsername())
+                            .amount(amount)
+                            .build(),
+                    (existing, other) -> {
+                        existing.setAmount(existing.getAmount().add(other.getAmount()));
+                        return existing;
+                    });
+        }
+
+        List<BalanceResponse.CounterpartyBalance> balances = byCounterparty.values().stream()
+                .filter(balance -> balance.getAmount().signum() != 0)
+                .sorted(Comparator.comparing(BalanceResponse.CounterpartyBalance::getAmount).reversed())
+                .toList();
+
+        BigDecimal owedToYou = balances.stream()
+                .map(BalanceResponse.CounterpartyBalance::getAmount)
+                .filter(amount -> amount.signum() > 0)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal youOwe = balances.stream()
+                .map(BalanceResponse.CounterpartyBalance::getAmount)
+                .filter(amount -> amount.signum() < 0)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .negate();
+
+        return BalanceResponse.builder()
+                .totalOwedToYou(owedToYou)
+                .totalYouOwe(youOwe)
+                .balances(balances)
+                .build();
+    }
+
+    private record Pair(UUID debtorId, UUID creditorId) {
+
+        static final Comparator<Pair> ORDER = Comparator.comparing(Pair::debtorId).thenComparing(Pair::creditorId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.splitly.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache regions for the read-mostly aggregates: users, expenses,
+ * their shares and the share ids of each expense. Hibernate keeps the regions in step with
+ * every write made through the session. Bulk JPQL updates and deletes on a cached entity
+ * drop its whole region; native statements must name their tables (HINT_NATIVE_SPACES), or
+ * Hibernate drops every region. Each region publishes the usual cache metrics plus
+ * cache.hit.ratio.
+ */
+@Configuration
+@PropertySource("classpath:cache.properties")
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String EXPENSES = "expenses";
+    public static final String EXPENSE_SHARES = "expense-shares";
+    public static final String EXPENSE_SHARE_IDS = "expense-share-ids";
+
+    private static final List<String> REGIONS = List.of(USERS, EXPENSES, EXPENSE_SHARES, EXPENSE_SHARE_IDS);
+
+    // A provider of our own rather than the shared Caching registry, so every application context gets fresh regions
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties, MeterRegistry meterRegistry){
+
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for(String region : REGIONS){
+            SecondLevelCacheProperties.Region limits = properties.regionFor(region);
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                    .setMaximumSize(OptionalLong.of(limits.getMaxSize()))
+                    .setExpireAfterWrite(OptionalLong.of(limits.getTtl().toNanos()))
+                    .setStoreByValue(false) // Hibernate already caches disassembled state, never live entities
+                    .setNativeStatisticsEnabled(true);
+
+            Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+            @SuppressWarnings("unchecked")
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+
+            CaffeineCacheMetrics.monitor(meterRegistry, caffeine, region);
+            Gauge.builder("cache.hit.ratio", caffeine, c -> c.stats().hitRate())
+                    .tag("cache", region)
+                    .register(meterRegistry);
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties, CacheManager secondLevelCacheManager){
+
+        return hibernate -> {
+            hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isEnabled());
+            if(!properties.isEnabled()) return;
+
+            hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernate.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // Every region must be one of the configured ones above
+            hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // A share saved or deleted without touching its expense's loaded collection still drops the cached id list
+            hibernate.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.splitly.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    public static final int JDBC_BATCH_SIZE = 50;
+
+    // JDBC batching defaults; anything set under spring.jpa.properties still wins
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(){
+
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, JDBC_BATCH_SIZE);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
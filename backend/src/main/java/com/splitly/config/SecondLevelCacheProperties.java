@@ -0,0 +1,32 @@
+package com.splitly.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size and TTL of each Hibernate second-level cache region, keyed by region name, e.g.
+ * {@code cache.second-level.regions.expenses.max-size=50000}. Regions without an entry
+ * use the defaults below.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache.second-level")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = true;
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Data
+    public static class Region {
+        private long maxSize = 10_000;
+        // Bounds how stale another node's copy can get; this node's own writes update it immediately
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    public Region regionFor(String name){
+        return regions.getOrDefault(name, new Region());
+    }
+}
@@ -0,0 +1,6 @@
+package com.splitly.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
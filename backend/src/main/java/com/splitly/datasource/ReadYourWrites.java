@@ -0,0 +1,42 @@
+package com.splitly.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitly.user.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+
+/**
+ * Remembers which users wrote in the last sticky-window so their following reads see their own
+ * changes. The window lives in this node's memory, so it holds as long as a user's requests
+ * land on the node that took the write.
+ */
+public class ReadYourWrites {
+
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public ReadYourWrites(ReplicaRoutingProperties properties){
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStickyWindow())
+                .maximumSize(properties.getMaxStickyUsers())
+                .build();
+    }
+
+    public void recordWrite(){
+        UUID userId = currentUserId();
+        if(userId != null) recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isSticky(){
+        UUID userId = currentUserId();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static UUID currentUserId(){
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) return user.getId();
+        return null;
+    }
+}
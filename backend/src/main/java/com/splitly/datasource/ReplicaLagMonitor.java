@@ -0,0 +1,79 @@
+package com.splitly.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Decides whether the replica may serve reads. It starts out unusable and is re-checked on a
+ * fixed delay; an unreachable replica or one lagging beyond max-lag sends reads to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final ReplicaRoutingProperties properties;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaRoutingProperties properties, MeterRegistry meterRegistry){
+        this.replica = replica;
+        this.properties = properties;
+
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable(){
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-ms:1000}")
+    public void check(){
+
+        boolean wasUsable = usable;
+        try(Connection connection = replica.getConnection()){
+            double lag = measureLag(connection);
+            lagSeconds = lag;
+            usable = lag <= properties.getMaxLag().toMillis() / 1000.0;
+        }
+        catch(Exception e){
+            lagSeconds = Double.NaN;
+            usable = false;
+            if(wasUsable) log.warn("Replica check failed, reads go to the primary", e);
+            return;
+        }
+
+        if(wasUsable != usable){
+            log.info(usable ? "Replica caught up ({}s behind), routing reads to it" : "Replica is {}s behind, reads go to the primary", lagSeconds);
+        }
+    }
+
+    private double measureLag(Connection connection) throws Exception{
+
+        String lagQuery = properties.getLagQuery();
+        if(lagQuery == null || lagQuery.isBlank()){
+            if(!connection.isValid(1)) throw new IllegalStateException("Replica connection is not valid");
+            return 0;
+        }
+
+        try(Statement statement = connection.createStatement();
+            ResultSet result = statement.executeQuery(lagQuery)){
+            if(!result.next()) throw new IllegalStateException("Lag query returned no rows");
+            double lag = result.getDouble(1);
+            // A null lag means the replica cannot tell, which is as good as unknown
+            if(result.wasNull()) throw new IllegalStateException("Lag query returned null");
+            return lag;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.splitly.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Hands out primary or replica connections by the route ReplicaRoutingTransactionManager
+ * bound for the current transaction. Anything outside a transaction goes to the primary.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    // A stack, so a REQUIRES_NEW transaction inside another one restores the outer route when it ends
+    private static final ThreadLocal<Deque<DataSourceRoute>> ROUTES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    static void bind(DataSourceRoute route){
+        ROUTES.get().push(route);
+    }
+
+    static void unbind(){
+        Deque<DataSourceRoute> routes = ROUTES.get();
+        routes.poll();
+        if(routes.isEmpty()) ROUTES.remove();
+    }
+
+    static DataSourceRoute current(){
+        DataSourceRoute route = ROUTES.get().peek();
+        return route != null ? route : DataSourceRoute.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey(){
+        return current();
+    }
+}
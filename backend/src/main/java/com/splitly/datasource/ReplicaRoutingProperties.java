@@ -0,0 +1,26 @@
+package com.splitly.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How read-only transactions use the replica configured under datasource.replica.*.
+ * lag-query runs on the replica and must return its replication lag in seconds, e.g. on
+ * PostgreSQL {@code select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+ * then 0 else extract(epoch from now() - pg_last_xact_replay_timestamp()) end}. Without
+ * one, the replica is only checked for being reachable.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private String lagQuery;
+    private Duration maxLag = Duration.ofSeconds(2);
+    private long lagCheckMs = 1000;
+
+    // After a user's own write, their reads stay on the primary this long; keep it above max-lag
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    private long maxStickyUsers = 100_000;
+}
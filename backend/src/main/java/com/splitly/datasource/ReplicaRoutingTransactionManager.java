@@ -0,0 +1,85 @@
+package com.splitly.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Picks the connection pool when a transaction begins: read-only transactions go to the replica
+ * while it is usable and the user has not just written, everything else to the primary.
+ * Spring Data's own repository reads are read-only too, so they follow the same rules when
+ * called outside a service transaction.
+ */
+public class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWrites readYourWrites;
+    private final Counter primaryTransactions;
+    private final Counter replicaTransactions;
+
+    public ReplicaRoutingTransactionManager(ReplicaLagMonitor lagMonitor, ReadYourWrites readYourWrites, MeterRegistry meterRegistry){
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        this.primaryTransactions = meterRegistry.counter("datasource.transactions", "target", "primary");
+        this.replicaTransactions = meterRegistry.counter("datasource.transactions", "target", "replica");
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition){
+
+        DataSourceRoute route = definition.isReadOnly() && lagMonitor.isReplicaUsable() && !readYourWrites.isSticky()
+                ? DataSourceRoute.REPLICA
+                : DataSourceRoute.PRIMARY;
+
+        ReplicaRoutingDataSource.bind(route);
+        try{
+            super.doBegin(transaction, definition);
+        }
+        catch(RuntimeException | Error e){
+            ReplicaRoutingDataSource.unbind();
+            throw e;
+        }
+
+        if(route == DataSourceRoute.REPLICA){
+            // Whatever a lagging replica returns must not end up in the second-level cache
+            session().setCacheMode(CacheMode.GET);
+            replicaTransactions.increment();
+        }
+        else primaryTransactions.increment();
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status){
+        super.doCommit(status);
+        if(!status.isReadOnly()) readYourWrites.recordWrite();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction){
+
+        // With open-in-view the session outlives the transaction, so hand it back as it was
+        if(ReplicaRoutingDataSource.current() == DataSourceRoute.REPLICA){
+            session().setCacheMode(CacheMode.NORMAL);
+        }
+
+        try{
+            super.doCleanupAfterCompletion(transaction);
+        }
+        finally{
+            ReplicaRoutingDataSource.unbind();
+        }
+    }
+
+    private Session session(){
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        EntityManager entityManager = holder.getEntityManager();
+        return entityManager.unwrap(Session.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.splitly.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One open stream. Publishers only append to its bounded buffer and, if nobody is draining
+ * it yet, hand a drain task to the shared dispatcher, so an idle connection holds no thread
+ * and a slow one never blocks the committing request. When the buffer is full the oldest
+ * frame is dropped and the client is told to resync before the next frame it receives.
+ */
+class EventConnection {
+
+    record Frame(String name, String data) {
+
+        static final Frame HEARTBEAT = new Frame(null, null);
+        static final Frame RESYNC = new Frame("resync", "{\"type\":\"RESYNC\"}");
+    }
+
+    private final UUID userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor dispatcher;
+    private final Consumer<EventConnection> onClose;
+
+    private final Queue<Frame> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean dropped = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private long sequence;
+
+    EventConnection(UUID userId, SseEmitter emitter, int capacity, Executor dispatcher, Consumer<EventConnection> onClose) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.dispatcher = dispatcher;
+        this.onClose = onClose;
+    }
+
+    UUID userId(){
+        return userId;
+    }
+
+    SseEmitter emitter(){
+        return emitter;
+    }
+
+    boolean isIdle(){
+        return size.get() == 0;
+    }
+
+    // Returns true if an older frame had to be dropped to make room
+    boolean offer(Frame frame){
+
+        if(closed.get()) return false;
+
+        boolean overflow = false;
+        buffer.offer(frame);
+        if(size.incrementAndGet() > capacity && buffer.poll() != null){
+            size.decrementAndGet();
+            dropped.set(true);
+            overflow = true;
+        }
+
+        scheduleDrain();
+        return overflow;
+    }
+
+    private void scheduleDrain(){
+
+        if(!closed.get() && draining.compareAndSet(false, true)){
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain(){
+
+        try{
+            Frame frame;
+            while(!closed.get() && (frame = buffer.poll()) != null){
+                size.decrementAndGet();
+                if(dropped.getAndSet(false)){
+                    send(Frame.RESYNC);
+                }
+                send(frame);
+            }
+        }catch (IOException | IllegalStateException e){
+            // Client went away; the container also reports it through the emitter callbacks
+            close();
+        }finally {
+            draining.set(false);
+        }
+
+        // A frame offered between the last poll and the flag reset would otherwise wait for the next offer
+        if(!buffer.isEmpty()) scheduleDrain();
+    }
+
+    private void send(Frame frame) throws IOException {
+
+        if(frame == Frame.HEARTBEAT){
+            emitter.send(SseEmitter.event().comment(""));
+        }else{
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(++sequence))
+                    .name(frame.name())
+                    .data(frame.data(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    void close(){
+
+        if(closed.compareAndSet(false, true)){
+            buffer.clear();
+            size.set(0);
+            onClose.accept(this);
+        }
+    }
+}
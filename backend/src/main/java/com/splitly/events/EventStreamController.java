@@ -0,0 +1,28 @@
+package com.splitly.events;
+
+import com.splitly.user.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/events")
+public class EventStreamController {
+
+    private final EventStreamService eventStreamService;
+
+    // Events only say what changed; after a "resync" event (or a reconnect) the client should reload its data
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@AuthenticationPrincipal AuthenticatedUser user){
+
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // stop reverse proxies from buffering the stream
+                .body(eventStreamService.subscribe(user.getId()));
+    }
+}
@@ -0,0 +1,142 @@
+package com.splitly.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open /events/stream connections by user and the fan-out of committed expense events to them.
+ * Streams run on servlet async support, so an open connection costs a socket and a small
+ * buffer; writes happen on a few shared dispatcher threads (see EventConnection).
+ */
+@Service
+public class EventStreamService {
+
+    private final Map<UUID, Set<EventConnection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService dispatcher;
+    private final Counter droppedFrames;
+
+    public EventStreamService(@Value("${events.buffer-size:64}") int bufferSize,
+                              @Value("${events.timeout-minutes:30}") long timeoutMinutes,
+                              @Value("${events.dispatch-threads:2}") int dispatchThreads,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+        this.objectMapper = objectMapper;
+
+        AtomicInteger sequence = new AtomicInteger();
+        // At most one drain task per connection is queued at a time, so the queue is bounded by the connection count
+        this.pool = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "event-dispatch-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.dispatcher = ExecutorServiceMetrics.monitor(meterRegistry, pool, "events.dispatch");
+
+        Gauge.builder("events.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+        this.droppedFrames = Counter.builder("events.dropped").register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(UUID userId){
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        EventConnection connection = new EventConnection(userId, emitter, bufferSize, dispatcher, this::remove);
+
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(error -> connection.close());
+
+        connectionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        connectionCount.incrementAndGet();
+
+        return emitter;
+    }
+
+    // Runs after the writing transaction commits; only appends to buffers, so the request isn't held up
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseEvent(ExpenseEvent event){
+
+        EventConnection.Frame frame = null;
+
+        for(UUID userId : event.getRecipients()){
+            Set<EventConnection> connections = connectionsByUser.get(userId);
+            if(connections == null) continue;
+
+            // Serialized once per event, and only if someone is listening
+            if(frame == null) frame = new EventConnection.Frame("expense", toJson(event));
+
+            for(EventConnection connection : connections){
+                if(connection.offer(frame)) droppedFrames.increment();
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds connections whose client is gone
+    @Scheduled(fixedDelayString = "${events.heartbeat-ms:25000}")
+    public void heartbeat(){
+
+        for(Set<EventConnection> connections : connectionsByUser.values()){
+            for(EventConnection connection : connections){
+                if(connection.isIdle()) connection.offer(EventConnection.Frame.HEARTBEAT);
+            }
+        }
+    }
+
+    public int connectionCount(){
+        return connectionCount.get();
+    }
+
+    private String toJson(ExpenseEvent event){
+
+        try{
+            return objectMapper.writeValueAsString(event);
+        }catch (JsonProcessingException e){
+            throw new IllegalStateException("Could not serialize " + event.getType(), e);
+        }
+    }
+
+    private void remove(EventConnection connection){
+
+        connectionsByUser.computeIfPresent(connection.userId(), (userId, connections) -> {
+            if(connections.remove(connection)) connectionCount.decrementAndGet();
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown(){
+
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> connection.emitter().complete()));
+        pool.shutdown();
+    }
+}
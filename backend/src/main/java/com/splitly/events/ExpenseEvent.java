@@ -0,0 +1,29 @@
+package com.splitly.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+// What changed, not the new state; clients re-fetch the expense (or their feed) when they care
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseEvent {
+
+    private ExpenseEventType type;
+    private UUID expenseId;
+    private UUID shareId;
+    private Long version;
+    private UUID actorId;
+    private Instant occurredAt;
+
+    @JsonIgnore
+    private Set<UUID> recipients;
+}
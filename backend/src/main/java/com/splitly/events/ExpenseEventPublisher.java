@@ -0,0 +1,50 @@
+package com.splitly.events;
+
+import com.splitly.expense.Expense;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Raises expense change events from inside the writing transaction. EventStreamService only
+ * sees them once that transaction commits, so a rolled back write never reaches a client.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseEventPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public void expenseChanged(ExpenseEventType type, Expense expense, UUID actorId, Collection<UUID> recipients){
+
+        publish(ExpenseEvent.builder()
+                .type(type)
+                .expenseId(expense.getUuid())
+                .version(type == ExpenseEventType.EXPENSE_DELETED ? null : expense.getVersion())
+                .actorId(actorId)
+                .recipients(Set.copyOf(recipients))
+                .build());
+    }
+
+    public void sharePaid(UUID expenseId, UUID shareId, UUID actorId, Collection<UUID> recipients){
+
+        publish(ExpenseEvent.builder()
+                .type(ExpenseEventType.SHARE_PAID)
+                .expenseId(expenseId)
+                .shareId(shareId)
+                .actorId(actorId)
+                .recipients(Set.copyOf(recipients))
+                .build());
+    }
+
+    private void publish(ExpenseEvent event){
+
+        event.setOccurredAt(Instant.now());
+        applicationEventPublisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,8 @@
+package com.splitly.events;
+
+public enum ExpenseEventType {
+    EXPENSE_CREATED,
+    EXPENSE_UPDATED,
+    EXPENSE_DELETED,
+    SHARE_PAID
+}
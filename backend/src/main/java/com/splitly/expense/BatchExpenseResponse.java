@@ -0,0 +1,43 @@
+package com.splitly.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchExpenseResponse {
+
+    private int created;
+    private int failed;
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    @Data
+    @Builder
+    public static class ItemResult {
+        private int index; // position of the item in the request list
+        private Status status;
+        private UUID expenseId;
+        private String error;
+
+        static ItemResult created(int index, UUID expenseId){
+            return ItemResult.builder().index(index).status(Status.CREATED).expenseId(expenseId).build();
+        }
+
+        static ItemResult failed(int index, String error){
+            return ItemResult.builder().index(index).status(Status.FAILED).error(error).build();
+        }
+    }
+
+    private List<ItemResult> results;
+}
@@ -1,5 +1,6 @@
 package com.splitly.expense;
 
+import com.splitly.config.CacheConfig;
 import com.splitly.expense.enums.Category;
 import com.splitly.expense.enums.PaymentMethod;
 import com.splitly.user.User;
@@ -8,20 +9,28 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.EXPENSES)
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "expenses")
+@Table(name = "expenses",
+        uniqueConstraints = @UniqueConstraint(name = "uk_expenses_recurring_date", columnNames = {"recurring_expense_id", "date"}),
+        indexes = @Index(name = "idx_expenses_user_date", columnList = "user_id, date, uuid"))
 public class Expense {
 
     @Id
@@ -43,7 +52,9 @@ public class Expense {
     private User creator;
 
     @Builder.Default
-    @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)//One expense can have many expense shares
+    // No orphanRemoval: share deletes are issued explicitly (in bulk) by ExpenseService
+    @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL)//One expense can have many expense shares
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.EXPENSE_SHARE_IDS)
     private List<ExpenseShare> shares    = new ArrayList<>();
 
     @Column(nullable = false)
@@ -56,19 +67,34 @@ public class Expense {
     @Column(nullable = false)
     private PaymentMethod paymentMethod;
 
+    // Set when created by RecurringExpenseJob; one expense per template and date
+    @Column(name = "recurring_expense_id", updatable = false)
+    private UUID recurringExpenseId;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; every update bumps it, including share-only edits (see ExpenseService.updateExpense)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PreUpdate
     protected void onUpdate(){
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = now();
     }
 
     @PrePersist
     protected void onCreate(){
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = now();
+        this.updatedAt = now();
+    }
+
+    // The columns hold microseconds; a second-level cache copy must match what a reload returns
+    private static LocalDateTime now(){
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -1,13 +1,29 @@
 package com.splitly.expense;
 
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.version.DataVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @RestController
@@ -15,16 +31,88 @@ import java.util.UUID;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseSearchService expenseSearchService;
+    private final DataVersionService dataVersionService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Responses are per user; browsers may keep them but must revalidate with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     @GetMapping("/all")
-    public ResponseEntity<List<ExpenseResponse>> getAllExpenses(){
-        return ResponseEntity.ok(expenseService.getAllExpenses());
+    public ResponseEntity<ExpenseFeedResponse> getAllExpenses(@AuthenticationPrincipal AuthenticatedUser user,
+                                                              WebRequest webRequest,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int limit){
+
+        return versioned(user, webRequest, () -> expenseService.getAllExpenses(cursor, limit));
+    }
+
+    // Filters as query parameters, e.g. ?category=FOOD&category=TRANSPORT&status=UNPAID&from=2024-01-01&sort=AMOUNT&direction=ASC
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseFeedResponse> searchExpenses(@AuthenticationPrincipal AuthenticatedUser user,
+                                                              WebRequest webRequest,
+                                                              ExpenseSearchCriteria criteria,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int limit){
+
+        return versioned(user, webRequest, () -> expenseSearchService.search(user, criteria, cursor, limit));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> conflict(OptimisticLockingFailureException e){
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                        "The expense was changed by someone else; reload it and try again"));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@AuthenticationPrincipal AuthenticatedUser user,
+                                                                @RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+
+        ExportFormat exportFormat;
+        try{
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        }catch (IllegalArgumentException e){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses." + exportFormat.getExtension() + "\"")
+                .body(expenseExportService.export(user, exportFormat, from, to));
     }
 
     @GetMapping("{expenseId}")
-    public ResponseEntity<ExpenseResponse> getExpenseById(@PathVariable UUID expenseId){
+    public ResponseEntity<ExpenseResponse> getExpenseById(@AuthenticationPrincipal AuthenticatedUser user,
+                                                          WebRequest webRequest,
+                                                          @PathVariable UUID expenseId){
+
+        return versioned(user, webRequest, () -> expenseService.getExpenseById(expenseId));
+    }
 
-        return ResponseEntity.ok(expenseService.getExpenseById(expenseId));
+    /*
+     * The version and the body are read in one read-only transaction, so with replica routing
+     * both come from the same data source and the services' own read-only transactions join it.
+     * Version first: a write racing the read can then only make the ETag older than the body, never newer.
+     */
+    private <T> ResponseEntity<T> versioned(AuthenticatedUser user, WebRequest webRequest, Supplier<T> body){
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return readOnly.execute(status -> {
+            String etag = dataVersionService.etag(user.getId());
+            if(webRequest.checkNotModified(etag)) return null;
+
+            return ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .eTag(etag)
+                    .body(body.get());
+        });
     }
 
     @PostMapping
@@ -33,6 +121,12 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.createExpense(expenseRequest));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchExpenseResponse> createExpenses(@RequestBody List<ExpenseRequest> requests){
+
+        return ResponseEntity.ok(expenseService.createExpenses(requests));
+    }
+
     @PutMapping("/{expenseId}")
     public ResponseEntity<ExpenseResponse> updateExpense(@PathVariable UUID expenseId,
                                                          @RequestBody ExpenseRequest request){
@@ -47,6 +141,13 @@ public class ExpenseController {
         return ResponseEntity.ok().build();
     }
 
+    // Settle-up: a list of share ids, or a counterparty to pay every open share with
+    @PostMapping("/shares/pay")
+    public ResponseEntity<PaySharesResponse> payShares(@RequestBody PaySharesRequest request){
+
+        return ResponseEntity.ok(expenseService.payShares(request));
+    }
+
     @DeleteMapping("{expenseId}")
     public ResponseEntity<Void> deleteExpense(@PathVariable UUID expenseId){
 
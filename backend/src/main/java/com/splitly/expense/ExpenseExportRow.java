@@ -0,0 +1,32 @@
+package com.splitly.expense;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// One exported line: an expense together with the exporting user's share of it
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseExportRow {
+
+    private UUID expenseId;
+    private LocalDate date;
+    private String title;
+    private String description;
+    private Category category;
+    private PaymentMethod paymentMethod;
+    private BigDecimal amount;
+    private String createdBy;
+    private BigDecimal shareAmount;
+    private PaymentStatus shareStatus;
+}
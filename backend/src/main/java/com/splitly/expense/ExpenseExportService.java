@@ -0,0 +1,235 @@
+package com.splitly.expense;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.splitly.archive.ArchivedExpense;
+import com.splitly.archive.ArchivedShare;
+import com.splitly.archive.ArchivedShareRepository;
+import com.splitly.user.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's expense history straight from database cursors to the response, merging
+ * the hot and archived tables by date. Rows are written and flushed in chunks and the
+ * persistence context is cleared after each chunk, so memory use does not grow with the
+ * size of the history.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseExportService {
+
+    public static final int CHUNK_SIZE = 500;
+
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private static final String CSV_HEADER =
+            "expense_id,date,title,description,category,payment_method,amount,created_by,share_amount,share_status";
+
+    private final ExpenseShareRepository expenseShareRepository;
+    private final ArchivedShareRepository archivedShareRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody export(AuthenticatedUser user, ExportFormat format, LocalDate from, LocalDate to){
+
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        if(start.isAfter(end)) throw new IllegalArgumentException("'from' must not be after 'to'");
+
+        UUID userId = user.getId();
+
+        // The body runs later on an async thread, so it opens its own read-only transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+            readOnly.executeWithoutResult(status -> {
+                try(Stream<ExpenseShare> shares = expenseShareRepository.streamHistory(userId, start, end);
+                    Stream<ArchivedShare> archivedShares = archivedShareRepository.streamHistory(userId, start, end)){
+
+                    Iterator<ExpenseExportRow> rows = newestFirst(
+                            shares.map(ExpenseExportService::toRow).iterator(),
+                            archivedShares.map(ExpenseExportService::toRow).iterator());
+
+                    if(format == ExportFormat.CSV){
+                        writeCsv(rows, writer);
+                    }else{
+                        writeNdjson(rows, writer);
+                    }
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+        };
+    }
+
+    private void writeNdjson(Iterator<ExpenseExportRow> shares, Writer writer) throws IOException {
+
+        // Boot's mapper flushes after every value; chunks are flushed in endChunk instead
+        SequenceWriter rows = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+
+        int written = 0;
+        while(shares.hasNext()){
+            rows.write(shares.next());
+            if(++written % CHUNK_SIZE == 0) endChunk(rows);
+        }
+
+        rows.flush();
+        if(written > 0) writer.write('\n');
+    }
+
+    private void writeCsv(Iterator<ExpenseExportRow> shares, Writer writer) throws IOException {
+
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        int written = 0;
+        while(shares.hasNext()){
+            ExpenseExportRow row = shares.next();
+
+            writer.write(row.getExpenseId().toString());
+            writer.write(',');
+            writer.write(row.getDate().toString());
+            writer.write(',');
+            writeCsvField(writer, row.getTitle());
+            writer.write(',');
+            writeCsvField(writer, row.getDescription());
+            writer.write(',');
+            writer.write(row.getCategory().name());
+            writer.write(',');
+            writer.write(row.getPaymentMethod().name());
+            writer.write(',');
+            writer.write(row.getAmount().toPlainString());
+            writer.write(',');
+            writeCsvField(writer, row.getCreatedBy());
+            writer.write(',');
+            writer.write(row.getShareAmount() != null ? row.getShareAmount().toPlainString() : "");
+            writer.write(',');
+            writer.write(row.getShareStatus().name());
+            writer.write('\n');
+
+            if(++written % CHUNK_SIZE == 0) endChunk(writer);
+        }
+    }
+
+    // Pushes the chunk (through any buffered rows) to the client and drops the entities it was built from
+    private void endChunk(Flushable out) throws IOException {
+        out.flush();
+        entityManager.clear();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+
+        if(value == null) return;
+
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if(!quote){
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Both cursors are already in (date, uuid) descending order, so merging them keeps the export in order
+    private static Iterator<ExpenseExportRow> newestFirst(Iterator<ExpenseExportRow> hot, Iterator<ExpenseExportRow> archived){
+
+        Comparator<ExpenseExportRow> order = Comparator.comparing(ExpenseExportRow::getDate)
+                .thenComparing(ExpenseExportRow::getExpenseId, ExpensePages.UUID_ORDER)
+                .reversed();
+
+        return new Iterator<>() {
+
+            private ExpenseExportRow nextHot = hot.hasNext() ? hot.next() : null;
+            private ExpenseExportRow nextArchived = archived.hasNext() ? archived.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextHot != null || nextArchived != null;
+            }
+
+            @Override
+            public ExpenseExportRow next() {
+
+                if(!hasNext()) throw new NoSuchElementException();
+
+                ExpenseExportRow row;
+                if(nextArchived == null || (nextHot != null && order.compare(nextHot, nextArchived) <= 0)){
+                    row = nextHot;
+                    nextHot = hot.hasNext() ? hot.next() : null;
+                }else{
+                    row = nextArchived;
+                    nextArchived = archived.hasNext() ? archived.next() : null;
+                }
+                return row;
+            }
+        };
+    }
+
+    private static ExpenseExportRow toRow(ExpenseShare share){
+
+        Expense expense = share.getExpense();
+
+        return ExpenseExportRow.builder()
+                .expenseId(expense.getUuid())
+                .date(expense.getDate())
+                .title(expense.getTitle())
+                .description(expense.getDescription())
+                .category(expense.getCategory())
+                .paymentMethod(expense.getPaymentMethod())
+                .amount(expense.getAmount())
+                .createdBy(expense.getCreator().getUsername())
+                .shareAmount(share.getAmountOwed())
+                .shareStatus(share.getStatus())
+                .build();
+    }
+
+    private static ExpenseExportRow toRow(ArchivedShare share){
+
+        ArchivedExpense expense = share.getExpense();
+
+        return ExpenseExportRow.builder()
+                .expenseId(expense.getUuid())
+                .date(expense.getDate())
+                .title(expense.getTitle())
+                .description(expense.getDescription())
+                .category(expense.getCategory())
+                .paymentMethod(expense.getPaymentMethod())
+                .amount(expense.getAmount())
+                .createdBy(expense.getCreator().getUsername())
+                .shareAmount(share.getAmountOwed())
+                .shareStatus(share.getStatus())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.splitly.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseFeedResponse {
+
+    private List<ExpenseResponse> expenses;
+    private String nextCursor; // null when there are no more pages
+}
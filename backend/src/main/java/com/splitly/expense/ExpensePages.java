@@ -0,0 +1,79 @@
+package com.splitly.expense;
+
+import com.splitly.archive.ArchivedExpense;
+import com.splitly.archive.ArchivedExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Pages that span the hot and archived expense tables. Each tier returns the keys of its own
+ * candidates in page order; they are merged here and only the expenses that make the page are
+ * loaded, each from the table it lives in.
+ */
+@Component
+@RequiredArgsConstructor
+class ExpensePages {
+
+    // Unsigned, most significant bits first: how PostgreSQL and H2 order uuid columns
+    static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing((UUID uuid) -> uuid.getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final ExpenseRepository expenseRepository;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+
+    // Position of an expense in a page: its sort value, with the uuid breaking ties
+    record Key(UUID uuid, Comparable<?> value, boolean archived) {}
+
+    static List<Key> keys(List<Object[]> rows, boolean archived){
+        return rows.stream()
+                .map(row -> new Key((UUID) row[0], (Comparable<?>) row[1], archived))
+                .toList();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static List<Key> merge(List<Key> hot, List<Key> archived, Sort.Direction direction, int limit){
+
+        Comparator<Key> order = (left, right) -> {
+            int byValue = ((Comparable) left.value()).compareTo(right.value());
+            return byValue != 0 ? byValue : UUID_ORDER.compare(left.uuid(), right.uuid());
+        };
+        if(direction.isDescending()) order = order.reversed();
+
+        return Stream.concat(hot.stream(), archived.stream())
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    List<ExpenseResponse> load(List<Key> keys){
+
+        List<UUID> hotIds = keys.stream().filter(key -> !key.archived()).map(Key::uuid).toList();
+        List<UUID> archivedIds = keys.stream().filter(Key::archived).map(Key::uuid).toList();
+
+        Map<UUID, ExpenseResponse> byId = new HashMap<>();
+        if(!hotIds.isEmpty()){
+            expenseRepository.findByUuidIn(hotIds).forEach(expense -> byId.put(expense.getUuid(), ExpenseService.toResponse(expense)));
+        }
+        if(!archivedIds.isEmpty()){
+            for(ArchivedExpense expense : archivedExpenseRepository.findByUuidIn(archivedIds)){
+                byId.put(expense.getUuid(), ExpenseService.toResponse(expense));
+            }
+        }
+
+        // An expense archived between the key query and this load drops out of this page only
+        return keys.stream()
+                .map(key -> byId.get(key.uuid()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
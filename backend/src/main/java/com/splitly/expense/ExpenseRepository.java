@@ -1,11 +1,41 @@
 package com.splitly.expense;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
 
     public List<Expense> findByCreatorId(UUID userId);
+
+    // First page of the feed: (uuid, date) keys only, newest first, so the limit is applied in SQL
+    @Query("""
+            select e.uuid, e.date from Expense e
+            where exists (select 1 from ExpenseShare s where s.expense = e and s.user.id = :userId)
+            order by e.date desc, e.uuid desc
+            """)
+    List<Object[]> findFeedKeys(@Param("userId") UUID userId, Limit limit);
+
+    // Following pages: everything strictly "older" than the (date, uuid) cursor
+    @Query("""
+            select e.uuid, e.date from Expense e
+            where exists (select 1 from ExpenseShare s where s.expense = e and s.user.id = :userId)
+              and (e.date < :date or (e.date = :date and e.uuid < :uuid))
+            order by e.date desc, e.uuid desc
+            """)
+    List<Object[]> findFeedKeysAfter(@Param("userId") UUID userId,
+                                     @Param("date") LocalDate date,
+                                     @Param("uuid") UUID uuid,
+                                     Limit limit);
+
+    // Loads a page of expenses together with their creator, shares and share users in one select
+    @EntityGraph(attributePaths = {"creator", "shares", "shares.user"})
+    List<Expense> findByUuidIn(Collection<UUID> uuids);
 }
@@ -2,6 +2,7 @@ package com.splitly.expense;
 
 import com.splitly.expense.enums.Category;
 import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.SplitType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,11 +26,20 @@ public class ExpenseRequest {
     private String description;
     private PaymentMethod paymentMethod;
 
+    // EXACT (the default) takes each amountOwed as given; the other types compute it server-side
+    private SplitType splitType;
+
+    // On update: the version the client edited; a stale one is rejected with 409
+    private Long version;
+
     @Data
     @Builder
     public static class Share{
         private UUID userId;
         private BigDecimal amountOwed;
+        private BigDecimal percent;      // PERCENT: up to two decimals, all shares add up to 100
+        private Integer weight;          // WEIGHTED
+        private List<BigDecimal> items;  // ITEMIZED: prices of the items this user had
     }
 
     private List<Share> shares;
@@ -28,6 +28,7 @@ public class ExpenseResponse {
     private String description;
     private PaymentMethod paymentMethod;
     private LocalDateTime createdAt;
+    private Long version;
 
     @Data
     @Builder
@@ -0,0 +1,41 @@
+package com.splitly.expense;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+// Filters for GET /expenses/search; every one is optional and they combine with AND
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseSearchCriteria {
+
+    private Set<Category> category;
+    private Set<PaymentMethod> paymentMethod;
+    private PaymentStatus status;          // status of the caller's own share
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private UUID counterpartyId;           // also shared with this user
+    private UUID creatorId;                // paid for by this user
+    private String text;                   // case-insensitive match within the title
+
+    @Builder.Default
+    private ExpenseSort sort = ExpenseSort.DATE;
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.DESC;
+}
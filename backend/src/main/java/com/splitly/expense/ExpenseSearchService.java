@@ -0,0 +1,119 @@
+package com.splitly.expense;
+
+import com.splitly.archive.ArchivedExpense;
+import com.splitly.archive.ArchivedShare;
+import com.splitly.user.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Filtered, sorted expense search over the caller's expenses with keyset paging. Like the
+ * feed, each tier picks the keys of its first matches in SQL, the two are merged, and only
+ * the expenses on the page are loaded with their shares, so the cost of a page does not
+ * depend on how many expenses match.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseSearchService {
+
+    static final int MAX_TEXT_LENGTH = 100;
+
+    private final ExpensePages expensePages;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public ExpenseFeedResponse search(AuthenticatedUser user, ExpenseSearchCriteria criteria, String cursor, int limit){
+
+        if(limit < 1 || limit > ExpenseService.MAX_FEED_PAGE_SIZE) throw new IllegalArgumentException("Limit must be between 1 and " + ExpenseService.MAX_FEED_PAGE_SIZE);
+        if(criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())){
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if(criteria.getText() != null && criteria.getText().length() > MAX_TEXT_LENGTH){
+            throw new IllegalArgumentException("Search text must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+
+        ExpenseSort sort = criteria.getSort() != null ? criteria.getSort() : ExpenseSort.DATE;
+        Sort.Direction direction = criteria.getDirection() != null ? criteria.getDirection() : Sort.Direction.DESC;
+
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor, sort, direction) : null;
+
+        // Fetch one extra key from each tier to know whether another page exists
+        List<ExpensePages.Key> keys = ExpensePages.merge(
+                ExpensePages.keys(findKeys(Expense.class, filters(ExpenseShare.class, user, criteria, sort, direction, after), sort, direction, limit + 1), false),
+                ExpensePages.keys(findKeys(ArchivedExpense.class, filters(ArchivedShare.class, user, criteria, sort, direction, after), sort, direction, limit + 1), true),
+                direction, limit + 1);
+
+        boolean hasMore = keys.size() > limit;
+        List<ExpensePages.Key> pageKeys = hasMore ? keys.subList(0, limit) : keys;
+
+        if(pageKeys.isEmpty()){
+            return ExpenseFeedResponse.builder()
+                    .expenses(List.of())
+                    .build();
+        }
+
+        String nextCursor = null;
+        if(hasMore){
+            ExpensePages.Key last = pageKeys.get(pageKeys.size() - 1);
+            nextCursor = new SearchCursor(sort, direction, last.value(), last.uuid()).encode();
+        }
+
+        return ExpenseFeedResponse.builder()
+                .expenses(expensePages.load(pageKeys))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static <T> Specification<T> filters(Class<?> shareType, AuthenticatedUser user, ExpenseSearchCriteria criteria,
+                                                ExpenseSort sort, Sort.Direction direction, SearchCursor after){
+
+        List<Specification<T>> filters = new ArrayList<>();
+        filters.add(ExpenseSpecifications.sharedWith(shareType, user.getId(), criteria.getStatus()));
+
+        if(criteria.getCounterpartyId() != null) filters.add(ExpenseSpecifications.sharedWith(shareType, criteria.getCounterpartyId(), null));
+        if(criteria.getCreatorId() != null) filters.add(ExpenseSpecifications.createdBy(criteria.getCreatorId()));
+        if(criteria.getCategory() != null && !criteria.getCategory().isEmpty()) filters.add(ExpenseSpecifications.inCategories(criteria.getCategory()));
+        if(criteria.getPaymentMethod() != null && !criteria.getPaymentMethod().isEmpty()) filters.add(ExpenseSpecifications.withPaymentMethods(criteria.getPaymentMethod()));
+        if(criteria.getFrom() != null) filters.add(ExpenseSpecifications.onOrAfter(criteria.getFrom()));
+        if(criteria.getTo() != null) filters.add(ExpenseSpecifications.onOrBefore(criteria.getTo()));
+        if(criteria.getText() != null && !criteria.getText().isBlank()) filters.add(ExpenseSpecifications.titleContains(criteria.getText().trim()));
+        if(after != null) filters.add(ExpenseSpecifications.after(sort, direction, after));
+
+        return Specification.allOf(filters);
+    }
+
+    // (uuid, sort value) of the first matches in page order
+    private <T> List<Object[]> findKeys(Class<T> type, Specification<T> specification, ExpenseSort sort, Sort.Direction direction, int limit){
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<T> root = query.from(type);
+
+        Path<UUID> uuid = root.get("uuid");
+        Path<?> key = root.get(sort.attribute());
+        query.multiselect(uuid, key)
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(order(cb, key, direction), order(cb, uuid, direction));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static Order order(CriteriaBuilder cb, Path<?> path, Sort.Direction direction){
+        return direction.isDescending() ? cb.desc(path) : cb.asc(path);
+    }
+}
@@ -1,18 +1,45 @@
 package com.splitly.expense;
 
+import com.splitly.analytics.SpendingDelta;
+import com.splitly.analytics.SpendingRollupService;
+import com.splitly.archive.ArchivedExpense;
+import com.splitly.archive.ArchivedExpenseRepository;
+import com.splitly.balance.BalanceService;
+import com.splitly.events.ExpenseEventPublisher;
+import com.splitly.events.ExpenseEventType;
 import com.splitly.expense.enums.PaymentStatus;
+import com.splitly.user.AuthenticatedUser;
 import com.splitly.user.User;
 import com.splitly.user.UserRepository;
-import jakarta.transaction.Transactional;
+import com.splitly.version.DataVersionService;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,18 +48,43 @@ public class ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
     private final ExpenseShareRepository expenseShareRepository;
+    private final BalanceService balanceService;
+    private final SpendingRollupService spendingRollupService;
+    private final DataVersionService dataVersionService;
+    private final ExpenseEventPublisher expenseEventPublisher;
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final ExpensePages expensePages;
 
-    private User getAuthenticatedUser(){
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public static final int MAX_FEED_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 5_000;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    // Ids per IN list when paying shares in bulk
+    private static final int PAY_CHUNK_SIZE = 1_000;
 
-        String username = SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getName();
+    private UUID getAuthenticatedUserId(){
 
-        return userRepository.findByUsername(username)
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // The JWT filter already resolved the user for this request
+        if(authentication.getPrincipal() instanceof AuthenticatedUser user){
+            return user.getId();
+        }
+
+        return userRepository.findByUsername(authentication.getName())
+                .map(User::getId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
     }
 
-    private ExpenseResponse toResponse(Expense expense){
+    // A reference owned by the current persistence context, for use as a creator or share user
+    private User getAuthenticatedUser(){
+
+        return userRepository.getReferenceById(getAuthenticatedUserId());
+    }
+
+    static ExpenseResponse toResponse(Expense expense){
 
         List<ExpenseResponse.ShareResponse> shareDTOs = expense.getShares().stream()
                 .map(share -> {
@@ -56,58 +108,164 @@ public class ExpenseService {
                 .description(expense.getDescription())
                 .paymentMethod(expense.getPaymentMethod())
                 .createdAt(expense.getCreatedAt())
+                .version(expense.getVersion())
                 .shares(shareDTOs)
                 .build();
     }
 
-    private Expense validExpense(UUID expenseId){
+    static ExpenseResponse toResponse(ArchivedExpense expense){
 
-        User user = getAuthenticatedUser();
+        return ExpenseResponse.builder()
+                .id(expense.getUuid())
+                .title(expense.getTitle())
+                .amount(expense.getAmount())
+                .date(expense.getDate())
+                .category(expense.getCategory())
+                .description(expense.getDescription())
+                .paymentMethod(expense.getPaymentMethod())
+                .createdAt(expense.getCreatedAt())
+                .version(expense.getVersion())
+                .shares(expense.getShares().stream()
+                        .map(share -> ExpenseResponse.ShareResponse.builder()
+                                .shareId(share.getId())
+                                .userId(share.getUser().getId())
+                                .amountOwed(share.getAmountOwed())
+                                .username(share.getUser().getUsername())
+                                .status(share.getStatus())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private Expense validExpense(UUID expenseId){
 
         Expense expense = expenseRepository.findById(expenseId)
-                .orElseThrow(() -> new RuntimeException("Expense not found"));
+                .orElseThrow(() -> new RuntimeException(archivedExpenseRepository.existsById(expenseId)
+                        ? "Archived expenses can't be changed"
+                        : "Expense not found"));
 
-        boolean creator = expense.getCreator().getId().equals(user.getId());
-        boolean hasShare = expense.getShares().stream()
-                .anyMatch(share -> share.getUser().getId().equals(user.getId()));
+        checkInvolved(expense.getCreator().getId(), expense.getShares().stream().map(share -> share.getUser().getId()));
+        return expense;
+    }
+
+    private void checkInvolved(UUID creatorId, Stream<UUID> participantIds){
+
+        UUID userId = getAuthenticatedUserId();
 
-        if(!creator && !hasShare){
+        if(!creatorId.equals(userId) && participantIds.noneMatch(userId::equals)){
             throw new SecurityException("Access denied: You are not involved in this expense");
         }
+    }
+
+    // Resolves every user referenced by the requests' shares with a single query
+    private Map<UUID, User> resolveShareUsers(List<ExpenseRequest> requests){
+
+        Set<UUID> userIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(ExpenseRequest::getShares)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .map(ExpenseRequest.Share::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if(userIds.isEmpty()) return Map.of();
+
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private void validateRequest(ExpenseRequest request, Map<UUID, User> usersById){
+
+        if(request == null) throw new IllegalArgumentException("Missing expense");
+        if(request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Invalid amount");
+        if(request.getCategory() == null) throw new IllegalArgumentException("Category is required");
+        if(request.getDate() == null) throw new IllegalArgumentException("Date is required");
+        if(request.getPaymentMethod() == null) throw new IllegalArgumentException("Payment method is required");
+
+        SplitEngine.apply(request);
+
+        if(request.getShares() == null) return;
+
+        BigDecimal totalFriendShares = BigDecimal.ZERO;
+
+        for(ExpenseRequest.Share share : request.getShares()){
+
+            if(share.getUserId() == null || !usersById.containsKey(share.getUserId())){
+                throw new IllegalArgumentException("User not found with id: " + share.getUserId());
+            }
+            if(share.getAmountOwed() == null || share.getAmountOwed().compareTo(BigDecimal.ZERO) < 0){
+                throw new IllegalArgumentException("Invalid share amount for user: " + share.getUserId());
+            }
+
+            totalFriendShares = totalFriendShares.add(share.getAmountOwed());
+        }
+
+        if(totalFriendShares.compareTo(request.getAmount()) > 0){
+            throw new IllegalArgumentException("Shares exceed the expense amount");
+        }
+    }
+
+    // Validates a request without saving anything
+    public void validate(ExpenseRequest request){
+
+        validateRequest(request, resolveShareUsers(List.of(request)));
+    }
+
+    /**
+     * Validates a request and builds the unsaved expense and its shares for the given creator,
+     * for callers that persist many expenses themselves (see RecurringExpenseJob).
+     * usersById must contain every user referenced by the request's shares.
+     */
+    public Expense prepareExpense(ExpenseRequest request, User creator, Map<UUID, User> usersById){
+
+        validateRequest(request, usersById);
+
+        Expense expense = toExpense(request, creator);
+        buildShares(expense, request, creator, usersById);
 
         return expense;
     }
 
-    private void createNewShares(Expense expense, ExpenseRequest request){
-        User user = getAuthenticatedUser();
+    private Expense toExpense(ExpenseRequest request, User creator){
 
-        if (request.getAmount().compareTo(BigDecimal.valueOf(0)) <= 0) throw new IllegalArgumentException("Invalid amount");
+        return Expense.builder()
+                .title(request.getTitle())
+                .amount(request.getAmount())
+                .date(request.getDate())
+                .category(request.getCategory())
+                .description(request.getDescription())
+                .paymentMethod(request.getPaymentMethod())
+                .creator(creator)
+                .build();
+    }
+
+    // Builds (but does not save) the shares for a validated request and attaches them to the expense
+    static List<ExpenseShare> buildShares(Expense expense, ExpenseRequest request, User user, Map<UUID, User> usersById){
+
+        List<ExpenseShare> shares = new ArrayList<>();
 
         if(request.getShares() == null || request.getShares().isEmpty() ){
-            var share = ExpenseShare.builder()
+            shares.add(ExpenseShare.builder()
                     .amountOwed(request.getAmount())
                     .user(user)
                     .expense(expense)
                     .status(PaymentStatus.PAID)
-                    .build();
-
-            expenseShareRepository.save(share);
+                    .build());
         }else{
 
             BigDecimal totalFriendShares = BigDecimal.ZERO;
 
             for(ExpenseRequest.Share share : request.getShares()){
 
-                User shareUser = userRepository.findById(share.getUserId())
-                        .orElseThrow(() -> new RuntimeException("User not found with id: " + share.getUserId()));
-                var expenseShare = ExpenseShare.builder()
+                boolean creator = share.getUserId().equals(user.getId());
+
+                shares.add(ExpenseShare.builder()
                         .expense(expense)
-                        .user(shareUser)
+                        .user(creator ? user : usersById.get(share.getUserId()))
                         .amountOwed(share.getAmountOwed())
-                        .status(PaymentStatus.UNPAID)
-                        .build();
-
-                expenseShareRepository.save(expenseShare);
+                        .status(creator ? PaymentStatus.PAID : PaymentStatus.UNPAID)
+                        .build());
 
                 totalFriendShares = totalFriendShares.add(share.getAmountOwed());
             }
@@ -115,16 +273,29 @@ public class ExpenseService {
             BigDecimal creatorShareAmount = expense.getAmount().subtract(totalFriendShares);
 
             if (creatorShareAmount.compareTo(BigDecimal.ZERO) > 0) {
-                var creatorShare = ExpenseShare.builder()
+                shares.add(ExpenseShare.builder()
                         .expense(expense)
                         .user(user)
                         .amountOwed(creatorShareAmount)
                         .status(PaymentStatus.PAID) // Creator paid the bill if there was a remainder
-                        .build();
-
-                expenseShareRepository.save(creatorShare);
+                        .build());
             }
         }
+
+        expense.getShares().addAll(shares);
+        return shares;
+    }
+
+    private List<ExpenseShare> createNewShares(Expense expense, ExpenseRequest request){
+        User user = getAuthenticatedUser();
+
+        Map<UUID, User> usersById = resolveShareUsers(List.of(request));
+        validateRequest(request, usersById);
+
+        List<ExpenseShare> shares = buildShares(expense, request, user, usersById);
+        expenseShareRepository.saveAll(shares);
+
+        return shares;
     }
 
     @Transactional
@@ -132,39 +303,255 @@ public class ExpenseService {
 
         User user = getAuthenticatedUser();
 
-        var expense = Expense.builder()
-                .title(request.getTitle())
-                .amount(request.getAmount())
-                .date(request.getDate())
-                .category(request.getCategory())
-                .description(request.getDescription())
-                .paymentMethod(request.getPaymentMethod())
-                .creator(user)
-                .build();
+        var expense = toExpense(request, user);
 
         expenseRepository.save(expense);
 
-        createNewShares(expense,request);
+        List<ExpenseShare> shares = createNewShares(expense,request);
+        balanceService.recordShares(expense, shares);
+        spendingRollupService.recordExpenses(List.of(expense));
+
+        Set<UUID> participants = DataVersionService.participants(List.of(expense));
+        dataVersionService.bump(participants);
+        expenseEventPublisher.expenseChanged(ExpenseEventType.EXPENSE_CREATED, expense, user.getId(), participants);
 
         return toResponse(expense);
     }
 
-    public List<ExpenseResponse> getAllExpenses(){
+    public BatchExpenseResponse createExpenses(List<ExpenseRequest> requests){
 
-        User user = getAuthenticatedUser();
-        List<ExpenseShare> shares = expenseShareRepository.findByUserId(user.getId());
+        if(requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE){
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " expenses");
+        }
+
+        UUID userId = getAuthenticatedUserId();
+        Map<UUID, User> usersById = resolveShareUsers(requests);
+
+        BatchExpenseResponse.ItemResult[] results = new BatchExpenseResponse.ItemResult[requests.size()];
+        List<Integer> valid = new ArrayList<>();
+
+        // Validate everything before touching the database
+        for(int i = 0; i < requests.size(); i++){
+            try{
+                validateRequest(requests.get(i), usersById);
+                valid.add(i);
+            }catch (IllegalArgumentException e){
+                results[i] = BatchExpenseResponse.ItemResult.failed(i, e.getMessage());
+            }
+        }
+
+        for(int from = 0; from < valid.size(); from += BATCH_CHUNK_SIZE){
+            List<Integer> chunk = valid.subList(from, Math.min(valid.size(), from + BATCH_CHUNK_SIZE));
+
+            try{
+                persistBatch(chunk, requests, userId, usersById, results);
+            }catch (RuntimeException e){
+                // Retry the failed chunk one item at a time so a single bad row doesn't sink its neighbours
+                for(Integer index : chunk){
+                    try{
+                        persistBatch(List.of(index), requests, userId, usersById, results);
+                    }catch (RuntimeException itemFailure){
+                        results[index] = BatchExpenseResponse.ItemResult.failed(index, itemFailure.getMessage());
+                    }
+                }
+            }
+        }
+
+        List<BatchExpenseResponse.ItemResult> items = List.of(results);
+        long created = items.stream().filter(item -> item.getStatus() == BatchExpenseResponse.Status.CREATED).count();
+
+        return BatchExpenseResponse.builder()
+                .created((int) created)
+                .failed(items.size() - (int) created)
+                .results(items)
+                .build();
+    }
+
+    // Persists one chunk in its own transaction; Hibernate groups the inserts into JDBC batches
+    private void persistBatch(List<Integer> indexes, List<ExpenseRequest> requests, UUID userId,
+                              Map<UUID, User> usersById, BatchExpenseResponse.ItemResult[] results){
+
+        List<Expense> expenses = transactionTemplate.execute(status -> {
+
+            User user = userRepository.getReferenceById(userId);
+
+            List<Expense> chunk = new ArrayList<>(indexes.size());
+            List<ExpenseShare> shares = new ArrayList<>();
+
+            for(Integer index : indexes){
+                ExpenseRequest request = requests.get(index);
+                Expense expense = toExpense(request, user);
+                shares.addAll(buildShares(expense, request, user, usersById));
+                chunk.add(expense);
+            }
+
+            expenseRepository.saveAll(chunk);
+            expenseShareRepository.saveAll(shares);
+            balanceService.recordExpenses(chunk);
+            spendingRollupService.recordExpenses(chunk);
+            dataVersionService.bumpExpenses(chunk);
+            chunk.forEach(expense -> expenseEventPublisher.expenseChanged(ExpenseEventType.EXPENSE_CREATED,
+                    expense, userId, DataVersionService.participants(List.of(expense))));
+
+            // Keep the persistence context from growing across chunks
+            entityManager.flush();
+            entityManager.clear();
+
+            return chunk;
+        });
+
+        for(int i = 0; i < indexes.size(); i++){
+            results[indexes.get(i)] = BatchExpenseResponse.ItemResult.created(indexes.get(i), expenses.get(i).getUuid());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ExpenseFeedResponse getAllExpenses(String cursor, int limit){
+
+        if(limit < 1 || limit > MAX_FEED_PAGE_SIZE) throw new IllegalArgumentException("Limit must be between 1 and " + MAX_FEED_PAGE_SIZE);
+
+        UUID userId = getAuthenticatedUserId();
+
+        // Fetch one extra key per table to know whether another page exists; older pages run into the archive
+        Limit pageLimit = Limit.of(limit + 1);
+        List<Object[]> hot;
+        List<Object[]> archived;
+        if(cursor == null || cursor.isBlank()){
+            hot = expenseRepository.findFeedKeys(userId, pageLimit);
+            archived = archivedExpenseRepository.findFeedKeys(userId, pageLimit);
+        }else{
+            FeedCursor after = FeedCursor.decode(cursor);
+            hot = expenseRepository.findFeedKeysAfter(userId, after.getDate(), after.getUuid(), pageLimit);
+            archived = archivedExpenseRepository.findFeedKeysAfter(userId, after.getDate(), after.getUuid(), pageLimit);
+        }
+
+        List<ExpensePages.Key> keys = ExpensePages.merge(ExpensePages.keys(hot, false), ExpensePages.keys(archived, true),
+                Sort.Direction.DESC, limit + 1);
+
+        boolean hasMore = keys.size() > limit;
+        List<ExpensePages.Key> pageKeys = hasMore ? keys.subList(0, limit) : keys;
+
+        if(pageKeys.isEmpty()){
+            return ExpenseFeedResponse.builder()
+                    .expenses(List.of())
+                    .build();
+        }
+
+        List<ExpenseResponse> expenses = expensePages.load(pageKeys);
 
-        return shares.stream()
-                .map(ExpenseShare::getExpense)
-                .distinct()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if(hasMore){
+            ExpensePages.Key last = pageKeys.get(pageKeys.size() - 1);
+            nextCursor = new FeedCursor((LocalDate) last.value(), last.uuid()).encode();
+        }
+
+        return ExpenseFeedResponse.builder()
+                .expenses(expenses)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    @Transactional(readOnly = true)
     public ExpenseResponse getExpenseById(UUID expenseId){
 
-        Expense expense = validExpense(expenseId);
-        return toResponse(expense);
+        Optional<Expense> expense = expenseRepository.findById(expenseId);
+        if(expense.isPresent()){
+            checkInvolved(expense.get().getCreator().getId(), expense.get().getShares().stream().map(share -> share.getUser().getId()));
+            return toResponse(expense.get());
+        }
+
+        // Settled history lives in the archive once ExpenseArchiveJob has moved it
+        ArchivedExpense archived = archivedExpenseRepository.findWithSharesByUuid(expenseId)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+
+        checkInvolved(archived.getCreator().getId(), archived.getShares().stream().map(share -> share.getUser().getId()));
+        return toResponse(archived);
+    }
+
+    // Amount each user should owe after applying the request; the creator keeps any remainder
+    private Map<UUID, BigDecimal> desiredShareAmounts(Expense expense, ExpenseRequest request){
+
+        UUID creatorId = expense.getCreator().getId();
+        Map<UUID, BigDecimal> desired = new LinkedHashMap<>();
+
+        if(request.getShares() == null || request.getShares().isEmpty()){
+            desired.put(creatorId, request.getAmount());
+            return desired;
+        }
+
+        BigDecimal totalFriendShares = BigDecimal.ZERO;
+        for(ExpenseRequest.Share share : request.getShares()){
+            desired.merge(share.getUserId(), share.getAmountOwed(), BigDecimal::add);
+            totalFriendShares = totalFriendShares.add(share.getAmountOwed());
+        }
+
+        BigDecimal creatorShareAmount = request.getAmount().subtract(totalFriendShares);
+        if(creatorShareAmount.compareTo(BigDecimal.ZERO) > 0){
+            desired.merge(creatorId, creatorShareAmount, BigDecimal::add);
+        }
+
+        return desired;
+    }
+
+    /**
+     * Brings the expense's shares in line with the request by userId instead of
+     * recreating them: changed amounts are updated in place, new participants are
+     * inserted, removed participants are deleted with one statement, and share ids
+     * and PAID statuses survive. Metadata-only edits touch no share rows at all.
+     */
+    private void syncShares(Expense expense, ExpenseRequest request, Map<UUID, User> usersById){
+
+        UUID creatorId = expense.getCreator().getId();
+        Map<UUID, BigDecimal> desired = desiredShareAmounts(expense, request);
+
+        Map<UUID, ExpenseShare> existing = new HashMap<>();
+        List<ExpenseShare> removed = new ArrayList<>();
+        for(ExpenseShare share : expense.getShares()){
+            if(existing.putIfAbsent(share.getUser().getId(), share) != null){
+                removed.add(share); // duplicate share for the same user
+            }
+        }
+
+        List<ExpenseShare> changed = new ArrayList<>();
+        Map<UUID, BigDecimal> added = new LinkedHashMap<>();
+        desired.forEach((userId, amount) -> {
+            ExpenseShare share = existing.remove(userId);
+            if(share == null){
+                added.put(userId, amount);
+            }else if(share.getAmountOwed() == null || share.getAmountOwed().compareTo(amount) != 0){
+                changed.add(share);
+            }
+        });
+        removed.addAll(existing.values());
+
+        if(changed.isEmpty() && added.isEmpty() && removed.isEmpty()) return;
+
+        List<ExpenseShare> outgoing = new ArrayList<>(changed);
+        outgoing.addAll(removed);
+        balanceService.reverseShares(expense, outgoing);
+
+        if(!removed.isEmpty()){
+            Set<UUID> removedIds = removed.stream().map(ExpenseShare::getId).collect(Collectors.toSet());
+            expenseShareRepository.deleteAllByIdInBatch(removedIds);
+            expense.getShares().removeIf(share -> removedIds.contains(share.getId()));
+            removed.forEach(entityManager::detach);
+        }
+
+        changed.forEach(share -> share.setAmountOwed(desired.get(share.getUser().getId())));
+
+        List<ExpenseShare> newShares = new ArrayList<>();
+        added.forEach((userId, amount) -> newShares.add(ExpenseShare.builder()
+                .expense(expense)
+                .user(userId.equals(creatorId) ? expense.getCreator() : usersById.get(userId))
+                .amountOwed(amount)
+                .status(userId.equals(creatorId) ? PaymentStatus.PAID : PaymentStatus.UNPAID)
+                .build()));
+        expenseShareRepository.saveAll(newShares);
+        expense.getShares().addAll(newShares);
+
+        List<ExpenseShare> incoming = new ArrayList<>(changed);
+        incoming.addAll(newShares);
+        balanceService.recordShares(expense, incoming);
     }
 
     @Transactional
@@ -172,17 +559,34 @@ public class ExpenseService {
 
         Expense expense = validExpense(expenseId);
 
+        if(request.getVersion() != null && !request.getVersion().equals(expense.getVersion())){
+            throw new ObjectOptimisticLockingFailureException(Expense.class, expenseId);
+        }
+
+        Map<UUID, User> usersById = resolveShareUsers(List.of(request));
+        validateRequest(request, usersById);
+
+        SpendingDelta spending = new SpendingDelta().subtract(expense);
+        Set<UUID> participants = DataVersionService.participants(List.of(expense));
+
         expense.setTitle(request.getTitle());
         expense.setAmount(request.getAmount());
         expense.setDate(request.getDate());
         expense.setCategory(request.getCategory());
         expense.setDescription(request.getDescription());
         expense.setPaymentMethod(request.getPaymentMethod());
+        expense.setUpdatedAt(LocalDateTime.now()); // always dirty, so share-only edits bump the version too
 
-        expenseShareRepository.deleteAll(expense.getShares());
-        createNewShares(expense,request);
+        syncShares(expense, request, usersById);
+        spendingRollupService.apply(spending.add(expense));
 
-        expenseRepository.save(expense);
+        // Users dropped from the expense see the change too
+        participants.addAll(DataVersionService.participants(List.of(expense)));
+        dataVersionService.bump(participants);
+
+        // Flushed here so a concurrent edit fails inside this call and the response carries the new version
+        expenseRepository.saveAndFlush(expense);
+        expenseEventPublisher.expenseChanged(ExpenseEventType.EXPENSE_UPDATED, expense, getAuthenticatedUserId(), participants);
 
         return toResponse(expense);
     }
@@ -190,23 +594,123 @@ public class ExpenseService {
     @Transactional
     public void payExpenseShare(UUID shareId){
 
-        User user = getAuthenticatedUser();
+        UUID userId = getAuthenticatedUserId();
         ExpenseShare share = expenseShareRepository.findById(shareId)
                 .orElseThrow(() -> new RuntimeException("Expense share with specified ID was not found!"));
 
-        boolean isCreator = share.getExpense().getCreator().getId().equals(user.getId());
-        boolean isOwner = share.getUser().getId().equals(user.getId());
+        boolean isCreator = share.getExpense().getCreator().getId().equals(userId);
+        boolean isOwner = share.getUser().getId().equals(userId);
 
         if (!isCreator && !isOwner) { throw new SecurityException("Access denied"); }
 
+        if(share.getStatus() == PaymentStatus.UNPAID){
+            balanceService.reverseShares(share.getExpense(), List.of(share));
+        }
+
         share.setStatus(PaymentStatus.PAID);
         expenseShareRepository.save(share);
+
+        Set<UUID> participants = DataVersionService.participants(List.of(share.getExpense()));
+        dataVersionService.bump(participants);
+        expenseEventPublisher.sharePaid(share.getExpense().getUuid(), share.getId(), userId, participants);
+    }
+
+    /**
+     * Pays many shares at once: one query loads and authorizes them and one UPDATE per
+     * PAY_CHUNK_SIZE ids marks them PAID. The update only matches rows that are still UNPAID;
+     * if a concurrent payment took some of them first, everything rolls back with a conflict
+     * instead of reversing those balances twice.
+     */
+    @Transactional
+    public PaySharesResponse payShares(PaySharesRequest request){
+
+        UUID userId = getAuthenticatedUserId();
+
+        boolean byIds = request.getShareIds() != null && !request.getShareIds().isEmpty();
+        boolean byCounterparty = request.getCounterpartyId() != null;
+        if(byIds == byCounterparty) throw new IllegalArgumentException("Send either shareIds or counterpartyId");
+
+        List<ExpenseShareRepository.PayableShare> shares = new ArrayList<>();
+        if(byIds){
+            List<UUID> shareIds = request.getShareIds().stream().distinct().toList();
+            if(shareIds.size() > MAX_BATCH_SIZE) throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " shares can be paid at once");
+
+            for(List<UUID> chunk : chunks(shareIds)){
+                shares.addAll(expenseShareRepository.findPayable(chunk, userId));
+            }
+            // Missing rows are either unknown or not the user's to pay; neither is told apart from the other
+            if(shares.size() != shareIds.size()) throw new SecurityException("Access denied");
+        }else{
+            if(request.getCounterpartyId().equals(userId)) throw new IllegalArgumentException("Cannot settle with yourself");
+            shares.addAll(expenseShareRepository.findBetween(userId, request.getCounterpartyId(), PaymentStatus.UNPAID));
+        }
+
+        List<ExpenseShareRepository.PayableShare> unpaid = shares.stream()
+                .filter(share -> share.getStatus() == PaymentStatus.UNPAID)
+                .toList();
+        List<UUID> unpaidIds = unpaid.stream().map(ExpenseShareRepository.PayableShare::getId).toList();
+
+        int updated = 0;
+        for(List<UUID> chunk : chunks(unpaidIds)){
+            updated += expenseShareRepository.updateStatus(chunk, PaymentStatus.UNPAID, PaymentStatus.PAID);
+        }
+        if(updated != unpaid.size()){
+            throw new ObjectOptimisticLockingFailureException("Some of the shares were paid by another request", null);
+        }
+
+        if(!unpaid.isEmpty()){
+            balanceService.reversePaidShares(unpaid);
+
+            Map<UUID, Set<UUID>> participantsByExpense = participantsByExpense(unpaid);
+            Set<UUID> participants = new HashSet<>();
+            participantsByExpense.values().forEach(participants::addAll);
+            dataVersionService.bump(participants);
+
+            unpaid.forEach(share -> expenseEventPublisher.sharePaid(share.getExpenseId(), share.getId(),
+                    userId, participantsByExpense.get(share.getExpenseId())));
+        }
+
+        return PaySharesResponse.builder()
+                .paid(unpaid.size())
+                .amount(unpaid.stream().map(ExpenseShareRepository.PayableShare::getAmountOwed).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .shareIds(unpaidIds)
+                .build();
+    }
+
+    // Creator plus every share user of each expense the paid shares belong to
+    private Map<UUID, Set<UUID>> participantsByExpense(List<ExpenseShareRepository.PayableShare> shares){
+
+        Map<UUID, Set<UUID>> participants = new HashMap<>();
+        shares.forEach(share -> participants.computeIfAbsent(share.getExpenseId(), id -> new HashSet<>()).add(share.getCreditorId()));
+
+        for(List<UUID> chunk : chunks(List.copyOf(participants.keySet()))){
+            for(Object[] row : expenseShareRepository.findShareUsersByExpenseIdIn(chunk)){
+                participants.get((UUID) row[0]).add((UUID) row[1]);
+            }
+        }
+        return participants;
+    }
+
+    private static List<List<UUID>> chunks(List<UUID> ids){
+
+        List<List<UUID>> chunks = new ArrayList<>();
+        for(int from = 0; from < ids.size(); from += PAY_CHUNK_SIZE){
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + PAY_CHUNK_SIZE)));
+        }
+        return chunks;
     }
 
     @Transactional
     public void deleteExpense(UUID expenseId){
 
         Expense expense = validExpense(expenseId);
+        balanceService.reverseShares(expense, expense.getShares());
+        spendingRollupService.reverseExpense(expense);
+
+        Set<UUID> participants = DataVersionService.participants(List.of(expense));
+        dataVersionService.bump(participants);
+        expenseEventPublisher.expenseChanged(ExpenseEventType.EXPENSE_DELETED, expense, getAuthenticatedUserId(), participants);
+
         expenseShareRepository.deleteAll(expense.getShares());
         expenseRepository.delete(expense);
     }
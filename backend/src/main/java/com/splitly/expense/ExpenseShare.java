@@ -1,5 +1,6 @@
 package com.splitly.expense;
 
+import com.splitly.config.CacheConfig;
 import com.splitly.expense.enums.PaymentStatus;
 import com.splitly.user.User;
 import jakarta.persistence.*;
@@ -7,6 +8,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -14,9 +18,15 @@ import java.util.UUID;
 @Data
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.EXPENSE_SHARES)
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "shares")
+// user_id leads so "expenses I'm part of" (feed and search) is a range scan; expense_id serves share fetches
+@Table(name = "shares", indexes = {
+        @Index(name = "idx_shares_user_status", columnList = "user_id, status, expense_id"),
+        @Index(name = "idx_shares_expense", columnList = "expense_id")
+})
 public class ExpenseShare {
 
     @Id
@@ -37,4 +47,10 @@ public class ExpenseShare {
     @ManyToOne(optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Optimistic lock: two concurrent payments of the same share can't both reverse its balance
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -1,11 +1,122 @@
 package com.splitly.expense;
 
+import com.splitly.expense.enums.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ExpenseShareRepository extends JpaRepository<ExpenseShare, UUID> {
 
     List<ExpenseShare> findByUserId(UUID userId);
+
+    // Rows of (debtor id, creditor id, total owed); the creator's own share is not a debt
+    @Query("""
+            select s.user.id, e.creator.id, sum(s.amountOwed) from ExpenseShare s
+            join s.expense e
+            where s.status = :status and s.user.id <> e.creator.id
+            group by s.user.id, e.creator.id
+            """)
+    List<Object[]> sumByDebtorAndCreditor(@Param("status") PaymentStatus status);
+
+    // Raw (debtor id, creditor id, amount) rows for debts where both sides are inside the given group
+    @Query("""
+            select s.user.id, e.creator.id, s.amountOwed from ExpenseShare s
+            join s.expense e
+            where s.status = :status
+              and s.user.id in :userIds and e.creator.id in :userIds
+              and s.user.id <> e.creator.id
+            """)
+    List<Object[]> findDebtsWithin(@Param("userIds") Collection<UUID> userIds, @Param("status") PaymentStatus status);
+
+    // Those of the given users who are on at least one expense with the given user, as creator or share
+    @Query("""
+            select s.user.id from ExpenseShare s join s.expense e
+            where s.user.id in :userIds
+              and (e.creator.id = :userId or exists (select 1 from ExpenseShare r where r.expense = e and r.user.id = :userId))
+            union
+            select e.creator.id from ExpenseShare r join r.expense e
+            where r.user.id = :userId and e.creator.id in :userIds
+            """)
+    List<UUID> findCoParticipants(@Param("userId") UUID userId, @Param("userIds") Collection<UUID> userIds);
+
+    // Server-side cursor over a user's history; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + ExpenseExportService.CHUNK_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select s from ExpenseShare s
+            join fetch s.expense e
+            join fetch e.creator
+            join fetch s.user
+            where s.user.id = :userId and e.date between :from and :to
+            order by e.date desc, e.uuid desc
+            """)
+    Stream<ExpenseShare> streamHistory(@Param("userId") UUID userId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    // (user, category, year, month, payment method, sum of own shares, share count) for the spending rollup rebuild
+    @Query("""
+            select s.user.id, e.category, year(e.date), month(e.date), e.paymentMethod, sum(s.amountOwed), count(s)
+            from ExpenseShare s join s.expense e
+            group by s.user.id, e.category, year(e.date), month(e.date), e.paymentMethod
+            """)
+    List<Object[]> sumSpendingByUserCategoryMonth();
+
+    interface PayableShare {
+        UUID getId();
+        UUID getExpenseId();
+        UUID getDebtorId();
+        UUID getCreditorId();
+        BigDecimal getAmountOwed();
+        PaymentStatus getStatus();
+    }
+
+    // The given shares that the user may pay: their own, or any share of an expense they created
+    @Query("""
+            select s.id as id, e.uuid as expenseId, s.user.id as debtorId, e.creator.id as creditorId,
+                   s.amountOwed as amountOwed, s.status as status
+            from ExpenseShare s join s.expense e
+            where s.id in :shareIds and (s.user.id = :userId or e.creator.id = :userId)
+            """)
+    List<PayableShare> findPayable(@Param("shareIds") Collection<UUID> shareIds, @Param("userId") UUID userId);
+
+    // Shares with the given status between two users, whichever of them created the expense
+    @Query("""
+            select s.id as id, e.uuid as expenseId, s.user.id as debtorId, e.creator.id as creditorId,
+                   s.amountOwed as amountOwed, s.status as status
+            from ExpenseShare s join s.expense e
+            where s.status = :status
+              and ((s.user.id = :userId and e.creator.id = :counterpartyId)
+                or (s.user.id = :counterpartyId and e.creator.id = :userId))
+            """)
+    List<PayableShare> findBetween(@Param("userId") UUID userId,
+                                   @Param("counterpartyId") UUID counterpartyId,
+                                   @Param("status") PaymentStatus status);
+
+    // Only flips rows still in the from status, so the count tells whether another request got there first
+    @Modifying
+    @Query("""
+            update ExpenseShare s set s.status = :to, s.version = s.version + 1
+            where s.id in :ids and s.status = :from
+            """)
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("from") PaymentStatus from,
+                     @Param("to") PaymentStatus to);
+
+    // (expense id, share user id) rows; with the creators these are everyone who sees the expenses
+    @Query("select e.uuid, s.user.id from ExpenseShare s join s.expense e where e.uuid in :expenseIds")
+    List<Object[]> findShareUsersByExpenseIdIn(@Param("expenseIds") Collection<UUID> expenseIds);
 }
@@ -0,0 +1,30 @@
+package com.splitly.expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+// Sort keys for expense search; the expense uuid breaks ties so keyset pages never overlap
+public enum ExpenseSort {
+
+    DATE("date", LocalDate::parse),
+    AMOUNT("amount", BigDecimal::new),
+    CREATED("createdAt", LocalDateTime::parse);
+
+    private final String attribute;
+    private final Function<String, Comparable<?>> parser;
+
+    ExpenseSort(String attribute, Function<String, Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.parser = parser;
+    }
+
+    String attribute() {
+        return attribute;
+    }
+
+    Comparable<?> parse(String raw) {
+        return parser.apply(raw);
+    }
+}
@@ -0,0 +1,85 @@
+package com.splitly.expense;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.PaymentStatus;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+// Building blocks for expense search; each one maps to a single indexable condition
+final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    // Expenses the user has a share in, optionally only those where that share has the given status.
+    // The share entity is passed in so the same filters work over the hot and the archived tables.
+    static <T> Specification<T> sharedWith(Class<?> shareType, UUID userId, PaymentStatus status) {
+        return (root, query, cb) -> {
+            Subquery<Integer> share = query.subquery(Integer.class);
+            Root<?> s = share.from(shareType);
+
+            List<Predicate> conditions = new ArrayList<>();
+            conditions.add(cb.equal(s.get("user").get("id"), userId));
+            if (status != null) conditions.add(cb.equal(s.get("status"), status));
+            conditions.add(cb.equal(s.get("expense"), root));
+
+            return cb.exists(share.select(cb.literal(1)).where(conditions.toArray(Predicate[]::new)));
+        };
+    }
+
+    static <T> Specification<T> createdBy(UUID creatorId) {
+        return (root, query, cb) -> cb.equal(root.get("creator").get("id"), creatorId);
+    }
+
+    static <T> Specification<T> inCategories(Set<Category> categories) {
+        return (root, query, cb) -> root.get("category").in(categories);
+    }
+
+    static <T> Specification<T> withPaymentMethods(Set<PaymentMethod> paymentMethods) {
+        return (root, query, cb) -> root.get("paymentMethod").in(paymentMethods);
+    }
+
+    static <T> Specification<T> onOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    static <T> Specification<T> onOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    static <T> Specification<T> titleContains(String text) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern, '\\');
+    }
+
+    // Everything strictly past the cursor in (sort key, uuid) order
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static <T> Specification<T> after(ExpenseSort sort, Sort.Direction direction, SearchCursor cursor) {
+        return (root, query, cb) -> {
+            Expression<Comparable> key = root.get(sort.attribute());
+            Comparable value = cursor.getValue();
+            Path<UUID> uuid = root.get("uuid");
+
+            if (direction.isDescending()) {
+                return cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(uuid, cursor.getUuid())));
+            }
+            return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(uuid, cursor.getUuid())));
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.splitly.expense;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for the expense feed. Encodes the (date, uuid) of the
+ * last expense on a page so the next page can continue right after it.
+ */
+final class FeedCursor {
+
+    private final LocalDate date;
+    private final UUID uuid;
+
+    FeedCursor(LocalDate date, UUID uuid) {
+        this.date = date;
+        this.uuid = uuid;
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    UUID getUuid() {
+        return uuid;
+    }
+
+    String encode() {
+        String raw = date + "|" + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static FeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new FeedCursor(LocalDate.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.splitly.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// Either the shares to pay, or a counterparty to settle every open share with (in both directions)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaySharesRequest {
+
+    private List<UUID> shareIds;
+    private UUID counterpartyId;
+}
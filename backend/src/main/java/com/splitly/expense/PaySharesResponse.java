@@ -0,0 +1,21 @@
+package com.splitly.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaySharesResponse {
+
+    private int paid; // shares that went from UNPAID to PAID; already paid ones are skipped
+    private BigDecimal amount;
+    private List<UUID> shareIds;
+}
@@ -0,0 +1,52 @@
+package com.splitly.expense;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for expense search. Encodes the sort it was issued for along with the
+ * sort value and uuid of the last expense on a page, so a cursor can't be replayed against a
+ * different ordering.
+ */
+final class SearchCursor {
+
+    private final ExpenseSort sort;
+    private final Sort.Direction direction;
+    private final Comparable<?> value;
+    private final UUID uuid;
+
+    SearchCursor(ExpenseSort sort, Sort.Direction direction, Comparable<?> value, UUID uuid) {
+        this.sort = sort;
+        this.direction = direction;
+        this.value = value;
+        this.uuid = uuid;
+    }
+
+    Comparable<?> getValue() {
+        return value;
+    }
+
+    UUID getUuid() {
+        return uuid;
+    }
+
+    String encode() {
+        String raw = sort + "|" + direction + "|" + value + "|" + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchCursor decode(String token, ExpenseSort sort, Sort.Direction direction) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4 || ExpenseSort.valueOf(parts[0]) != sort || Sort.Direction.valueOf(parts[1]) != direction) {
+                throw new IllegalArgumentException();
+            }
+            return new SearchCursor(sort, direction, sort.parse(parts[2]), UUID.fromString(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
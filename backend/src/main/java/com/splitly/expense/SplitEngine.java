@@ -0,0 +1,174 @@
+package com.splitly.expense;
+
+import com.splitly.expense.enums.SplitType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Computes share amounts for the server-side split types. All arithmetic is on long minor
+ * units (cents); amounts are turned back into BigDecimal only when written to the shares.
+ *
+ * Proportional splits hand out remainder cents by cumulative rounding: participant i gets
+ * floor(total * W_i / W) - floor(total * W_(i-1) / W), where W_i is the running weight. The
+ * parts always add up to the total exactly, each is within a cent of its exact value, and
+ * the result depends only on the order of the shares in the request.
+ */
+final class SplitEngine {
+
+    static final int SCALE = 2;
+
+    private static final long WHOLE_PERCENT = 100L * 100; // percentages carry two decimals
+
+    private SplitEngine(){}
+
+    // Sets amountOwed on every share of a non-EXACT request
+    static void apply(ExpenseRequest request){
+
+        SplitType type = request.getSplitType();
+        if(type == null || type == SplitType.EXACT) return;
+
+        List<ExpenseRequest.Share> shares = request.getShares();
+        if(shares == null || shares.isEmpty()){
+            throw new IllegalArgumentException(type + " split needs at least one participant");
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        for(ExpenseRequest.Share share : shares){
+            if(share.getUserId() != null && !seen.add(share.getUserId())){
+                throw new IllegalArgumentException("User listed twice in split: " + share.getUserId());
+            }
+        }
+
+        long total = toMinorUnits(request.getAmount(), "Invalid amount");
+
+        long[] parts = switch(type){
+            case EQUAL -> equal(total, shares.size());
+            case PERCENT -> percent(total, shares);
+            case WEIGHTED -> weighted(total, shares);
+            case ITEMIZED -> itemized(total, shares);
+            case EXACT -> throw new IllegalStateException();
+        };
+
+        for(int i = 0; i < parts.length; i++){
+            shares.get(i).setAmountOwed(BigDecimal.valueOf(parts[i], SCALE));
+        }
+    }
+
+    // The first (total % n) participants carry the extra cent
+    static long[] equal(long total, int n){
+
+        long[] parts = new long[n];
+        long base = total / n;
+        long remainder = total % n;
+
+        for(int i = 0; i < n; i++){
+            parts[i] = i < remainder ? base + 1 : base;
+        }
+        return parts;
+    }
+
+    static long[] proportional(long total, long[] weights){
+
+        long sum = 0;
+        for(long weight : weights){
+            if(weight < 0) throw new IllegalArgumentException("Split weights must not be negative");
+            sum = Math.addExact(sum, weight);
+        }
+        if(sum == 0) throw new IllegalArgumentException("Split weights must not all be zero");
+
+        long[] parts = new long[weights.length];
+        long running = 0;
+        long allocated = 0;
+
+        for(int i = 0; i < weights.length; i++){
+            running += weights[i];
+            long upTo = multiplyDivide(total, running, sum);
+            parts[i] = upTo - allocated;
+            allocated = upTo;
+        }
+        return parts;
+    }
+
+    private static long[] percent(long total, List<ExpenseRequest.Share> shares){
+
+        long[] weights = new long[shares.size()];
+        long sum = 0;
+
+        for(int i = 0; i < weights.length; i++){
+            BigDecimal percent = shares.get(i).getPercent();
+            if(percent == null) throw new IllegalArgumentException("Missing percent for user: " + shares.get(i).getUserId());
+
+            weights[i] = toMinorUnits(percent, "Invalid percent for user: " + shares.get(i).getUserId());
+            sum += weights[i];
+        }
+
+        if(sum != WHOLE_PERCENT) throw new IllegalArgumentException("Percentages must add up to 100");
+
+        return proportional(total, weights);
+    }
+
+    private static long[] weighted(long total, List<ExpenseRequest.Share> shares){
+
+        long[] weights = new long[shares.size()];
+
+        for(int i = 0; i < weights.length; i++){
+            Integer weight = shares.get(i).getWeight();
+            if(weight == null) throw new IllegalArgumentException("Missing weight for user: " + shares.get(i).getUserId());
+
+            weights[i] = weight;
+        }
+
+        return proportional(total, weights);
+    }
+
+    // Each participant pays for their items; whatever is left (tax, tip) is spread in proportion to item subtotals
+    private static long[] itemized(long total, List<ExpenseRequest.Share> shares){
+
+        long[] subtotals = new long[shares.size()];
+        long itemsTotal = 0;
+
+        for(int i = 0; i < subtotals.length; i++){
+            List<BigDecimal> items = shares.get(i).getItems();
+            if(items == null) continue;
+
+            for(BigDecimal item : items){
+                long price = item != null ? toMinorUnits(item, "Invalid item price for user: " + shares.get(i).getUserId()) : -1;
+                if(price < 0) throw new IllegalArgumentException("Invalid item price for user: " + shares.get(i).getUserId());
+
+                subtotals[i] = Math.addExact(subtotals[i], price);
+            }
+            itemsTotal = Math.addExact(itemsTotal, subtotals[i]);
+        }
+
+        if(itemsTotal > total) throw new IllegalArgumentException("Items exceed the expense amount");
+        if(itemsTotal == 0) throw new IllegalArgumentException("Itemized split needs at least one priced item");
+
+        long[] extra = proportional(total - itemsTotal, subtotals);
+        for(int i = 0; i < subtotals.length; i++){
+            subtotals[i] += extra[i];
+        }
+        return subtotals;
+    }
+
+    static long toMinorUnits(BigDecimal amount, String error){
+
+        try{
+            return amount.movePointRight(SCALE).longValueExact();
+        }catch (ArithmeticException e){
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    // floor(a * b / c) for non-negative operands, without overflowing on large amounts
+    private static long multiplyDivide(long a, long b, long c){
+
+        if(Math.multiplyHigh(a, b) == 0 && a * b >= 0) return a * b / c;
+
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c)).longValueExact();
+    }
+}
@@ -0,0 +1,10 @@
+package com.splitly.expense.enums;
+
+public enum SplitType {
+
+    EXACT,
+    EQUAL,
+    PERCENT,
+    WEIGHTED,
+    ITEMIZED
+}
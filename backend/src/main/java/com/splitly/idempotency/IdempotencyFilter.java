@@ -0,0 +1,223 @@
+package com.splitly.idempotency;
+
+import com.splitly.user.AuthenticatedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Makes authenticated writes safe to retry. A request carrying an Idempotency-Key header
+ * runs once; a retry with the same key gets the stored response (marked with
+ * Idempotent-Replayed), a retry while the first is still running gets 409, and reusing a
+ * key for a different request gets 422. Keys are scoped to the user, so they only have to be
+ * unique per client. Only successful responses are stored; failures may be retried. Bodies
+ * are buffered for the fingerprint, so ones over max-body-bytes are rejected with 413.
+ *
+ * Registered without an order, so it runs after the security filter chain has authenticated the user.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> WRITE_METHODS = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final IdempotencyStore idempotencyStore;
+    private final int maxBodyBytes;
+
+    // The default fits a full /expenses/batch
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             @Value("${idempotency.max-body-bytes:8388608}") int maxBodyBytes) {
+        this.idempotencyStore = idempotencyStore;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || !WRITE_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)){
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER);
+        if(idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH){
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER);
+            return;
+        }
+
+        if(request.getContentLengthLong() > maxBodyBytes){
+            rejectTooLarge(response);
+            return;
+        }
+
+        // Content-Length may be absent, so the read itself stops one byte past the limit
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if(body.length > maxBodyBytes){
+            rejectTooLarge(response);
+            return;
+        }
+
+        byte[] fingerprint = fingerprint(request, body);
+        String key = user.getId() + ":" + idempotencyKey;
+
+        IdempotencyStore.Entry existing = idempotencyStore.claim(key, fingerprint);
+        if(existing != null){
+            replay(existing, fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try{
+            filterChain.doFilter(new CachedBodyRequest(request, body), wrapper);
+
+            if(!request.isAsyncStarted() && HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()){
+                idempotencyStore.complete(key, new IdempotencyStore.Entry(IdempotencyStore.State.COMPLETED,
+                        fingerprint, wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        }finally{
+            if(!stored) idempotencyStore.release(key);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Request body exceeds " + maxBodyBytes + " bytes");
+    }
+
+    private static void replay(IdempotencyStore.Entry entry, byte[] fingerprint, HttpServletResponse response) throws IOException {
+
+        if(!Arrays.equals(entry.fingerprint(), fingerprint)){
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), HEADER + " was already used for a different request");
+            return;
+        }
+
+        if(entry.state() == IdempotencyStore.State.IN_FLIGHT){
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + HEADER + " is still in progress");
+            return;
+        }
+
+        response.setStatus(entry.status());
+        response.setHeader("Idempotent-Replayed", "true");
+        if(entry.contentType() != null) response.setContentType(entry.contentType());
+        response.setContentLength(entry.body().length);
+        response.getOutputStream().write(entry.body());
+    }
+
+    private static byte[] fingerprint(HttpServletRequest request, byte[] body){
+
+        try{
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if(request.getQueryString() != null){
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            return digest.digest(body);
+        }catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The body has already been read for the fingerprint, so downstream gets it from memory
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Everything is already in memory, so the listener can read it all at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try{
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    }catch (IOException e){
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
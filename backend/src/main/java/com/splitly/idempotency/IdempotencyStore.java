@@ -0,0 +1,54 @@
+package com.splitly.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Outcomes of writes sent with an Idempotency-Key, kept for a TTL so a retried request
+ * gets the original response instead of running again. An entry is IN_FLIGHT while the
+ * first request is still running and is dropped if that request doesn't succeed.
+ */
+@Component
+public class IdempotencyStore {
+
+    enum State { IN_FLIGHT, COMPLETED }
+
+    record Entry(State state, byte[] fingerprint, int status, String contentType, byte[] body) {
+
+        static Entry inFlight(byte[] fingerprint){
+            return new Entry(State.IN_FLIGHT, fingerprint, 0, null, null);
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(@Value("${idempotency.max-size:100000}") long maxSize,
+                            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                            MeterRegistry meterRegistry) {
+
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .recordStats()
+                .<String, Entry>build(), "idempotency");
+    }
+
+    // Claims the key for a new request; returns the existing entry instead if there is one
+    Entry claim(String key, byte[] fingerprint){
+        return cache.asMap().putIfAbsent(key, Entry.inFlight(fingerprint));
+    }
+
+    void complete(String key, Entry entry){
+        cache.put(key, entry);
+    }
+
+    void release(String key){
+        cache.invalidate(key);
+    }
+}
@@ -0,0 +1,30 @@
+package com.splitly.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+// Counts entity loads and lazy collection fetches against the current request
+@Component
+@RequiredArgsConstructor
+public class HibernateLoadListeners {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register(){
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestQueryStats.entityLoaded());
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> RequestQueryStats.collectionFetched());
+    }
+}
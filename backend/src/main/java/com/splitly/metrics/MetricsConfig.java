@@ -0,0 +1,29 @@
+package com.splitly.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.task.TaskDecorator;
+
+// metrics.properties only holds defaults; application.properties overrides any of them
+@Configuration
+@PropertySource("classpath:metrics.properties")
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer(){
+
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+
+    // Boot decorates applicationTaskExecutor with it, so async request work counts towards its request
+    @Bean
+    public TaskDecorator requestQueryStatsDecorator(){
+
+        return RequestQueryStats::propagate;
+    }
+}
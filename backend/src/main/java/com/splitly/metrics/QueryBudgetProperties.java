@@ -0,0 +1,25 @@
+package com.splitly.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maximum SQL statements a single request may run before a warning is logged.
+ * Per-endpoint budgets are keyed by the route pattern, e.g.
+ * {@code metrics.query-budget.endpoints.[/expenses/all]=10}.
+ */
+@Data
+@ConfigurationProperties(prefix = "metrics.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int defaultBudget = 30;
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String pattern){
+        return endpoints.getOrDefault(pattern, defaultBudget);
+    }
+}
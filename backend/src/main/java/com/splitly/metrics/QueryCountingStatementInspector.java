@@ -0,0 +1,13 @@
+package com.splitly.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every SQL string Hibernate prepares; counts it against the current request
+class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql){
+        RequestQueryStats.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,123 @@
+package com.splitly.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements, entity loads and collection fetches each request
+ * caused, tagged by route, and warns with the offending SQL when a request goes over
+ * its query budget. Runs ahead of the security chain so principal lookups count too.
+ * Async requests (login, register, exports, event streams) keep one set of stats across
+ * their dispatches and pool threads and are recorded once, when the async request completes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetProperties queryBudget;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch(){
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        RequestQueryStats stats = (RequestQueryStats) request.getAttribute(RequestQueryStats.ATTRIBUTE);
+        boolean firstDispatch = stats == null;
+        if(firstDispatch){
+            stats = new RequestQueryStats();
+            request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+        }
+
+        RequestQueryStats previous = RequestQueryStats.bind(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.bind(previous);
+
+            if(firstDispatch){
+                if(request.isAsyncStarted()) request.getAsyncContext().addListener(new RecordOnComplete(request, stats));
+                else record(request, stats);
+            }
+        }
+    }
+
+    private final class RecordOnComplete implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final RequestQueryStats stats;
+
+        RecordOnComplete(HttpServletRequest request, RequestQueryStats stats){
+            this.request = request;
+            this.stats = stats;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event){
+            record(request, stats);
+        }
+
+        // A dispatch that starts async again gets a new context, which needs the listener too
+        @Override
+        public void onStartAsync(AsyncEvent event){
+            event.getAsyncContext().addListener(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event){
+        }
+
+        @Override
+        public void onError(AsyncEvent event){
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats){
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        summary("http.server.sql.statements", tags).record(stats.getStatements());
+        summary("http.server.entity.loads", tags).record(stats.getEntityLoads());
+        summary("http.server.collection.fetches", tags).record(stats.getCollectionFetches());
+
+        int budget = queryBudget.budgetFor(uri);
+        if(queryBudget.isEnabled() && stats.getStatements() > budget){
+            log.warn("{} {} ran {} SQL statements (budget {}), {} entity loads, {} collection fetches:\n{}",
+                    request.getMethod(), uri, stats.getStatements(), budget,
+                    stats.getEntityLoads(), stats.getCollectionFetches(),
+                    String.join("\n", stats.getSql()));
+        }
+    }
+
+    private DistributionSummary summary(String name, Tags tags){
+        return DistributionSummary.builder(name)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
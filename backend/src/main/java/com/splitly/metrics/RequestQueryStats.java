@@ -0,0 +1,85 @@
+package com.splitly.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-request counters for Hibernate activity. {@link RequestMetricsFilter} keeps one instance
+ * per request as a request attribute and binds it to whichever thread is serving the request;
+ * {@link #propagate(Runnable)} carries it to pool threads that run the request's async work.
+ * Calls outside a request are ignored.
+ */
+public final class RequestQueryStats {
+
+    static final String ATTRIBUTE = RequestQueryStats.class.getName();
+
+    private static final int MAX_CAPTURED_STATEMENTS = 100;
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    // Async stages of one request may run on different threads, so the counters are shared safely
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger entityLoads = new AtomicInteger();
+    private final AtomicInteger collectionFetches = new AtomicInteger();
+    private final List<String> sql = Collections.synchronizedList(new ArrayList<>());
+
+    // Binds stats (or nothing, for null) to the current thread and returns what was bound before
+    static RequestQueryStats bind(RequestQueryStats stats){
+        RequestQueryStats previous = CURRENT.get();
+        if(stats != null) CURRENT.set(stats);
+        else CURRENT.remove();
+        return previous;
+    }
+
+    // Wraps a task so it counts towards the request that submitted it
+    public static Runnable propagate(Runnable task){
+        RequestQueryStats stats = CURRENT.get();
+        if(stats == null) return task;
+
+        return () -> {
+            RequestQueryStats previous = bind(stats);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    static void statementPrepared(String statement){
+        RequestQueryStats stats = CURRENT.get();
+        if(stats == null) return;
+
+        if(stats.statements.incrementAndGet() <= MAX_CAPTURED_STATEMENTS) stats.sql.add(statement);
+    }
+
+    static void entityLoaded(){
+        RequestQueryStats stats = CURRENT.get();
+        if(stats != null) stats.entityLoads.incrementAndGet();
+    }
+
+    static void collectionFetched(){
+        RequestQueryStats stats = CURRENT.get();
+        if(stats != null) stats.collectionFetches.incrementAndGet();
+    }
+
+    public int getStatements(){
+        return statements.get();
+    }
+
+    public int getEntityLoads(){
+        return entityLoads.get();
+    }
+
+    public int getCollectionFetches(){
+        return collectionFetches.get();
+    }
+
+    public List<String> getSql(){
+        synchronized(sql){
+            return List.copyOf(sql);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.splitly.recurring;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.SplitType;
+import com.splitly.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Template for an expense that repeats on a cron schedule. {@code nextRunDate} is the date
+ * of the next occurrence still to be created; {@link RecurringExpenseJob} advances it in the
+ * same transaction that creates the expenses, so it doubles as the job's checkpoint.
+ */
+@Data
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "recurring_expenses",
+        indexes = @Index(name = "idx_recurring_expenses_next_run", columnList = "active, next_run_date, id"))
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User creator;
+
+    @Column
+    private String title;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    @Column
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Enumerated(EnumType.STRING)
+    private SplitType splitType;
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "recurring_expense_shares", joinColumns = @JoinColumn(name = "recurring_expense_id"))
+    @OrderColumn(name = "position")
+    private List<RecurringShare> shares = new ArrayList<>();
+
+    // Spring cron expression (second minute hour day month weekday); only the dates it fires on matter
+    @Column(nullable = false)
+    private String cron;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Column(name = "next_run_date")
+    private LocalDate nextRunDate;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate(){
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,39 @@
+package com.splitly.recurring;
+
+import com.splitly.user.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/recurring-expenses")
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    @PostMapping
+    public ResponseEntity<RecurringExpenseResponse> createRecurringExpense(@AuthenticationPrincipal AuthenticatedUser user,
+                                                                           @RequestBody RecurringExpenseRequest request){
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(recurringExpenseService.createRecurringExpense(user, request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecurringExpenseResponse>> getRecurringExpenses(@AuthenticationPrincipal AuthenticatedUser user){
+
+        return ResponseEntity.ok(recurringExpenseService.getRecurringExpenses(user));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringExpense(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable UUID id){
+
+        recurringExpenseService.deleteRecurringExpense(user, id);
+        return ResponseEntity.noContent().build();
+    }
+}
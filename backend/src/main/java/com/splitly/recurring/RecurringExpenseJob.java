@@ -0,0 +1,200 @@
+package com.splitly.recurring;
+
+import com.splitly.analytics.SpendingRollupService;
+import com.splitly.balance.BalanceService;
+import com.splitly.events.ExpenseEventPublisher;
+import com.splitly.events.ExpenseEventType;
+import com.splitly.expense.Expense;
+import com.splitly.expense.ExpenseRepository;
+import com.splitly.expense.ExpenseService;
+import com.splitly.expense.ExpenseShare;
+import com.splitly.expense.ExpenseShareRepository;
+import com.splitly.user.User;
+import com.splitly.user.UserRepository;
+import com.splitly.version.DataVersionService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the expenses of all due recurring templates. Templates are processed in keyset
+ * order, one chunk per transaction; each chunk inserts its expenses and shares (JDBC-batched) and
+ * advances the templates' nextRunDate in the same commit. After a crash the next run simply
+ * picks up whatever is still due, and the unique (recurring_expense_id, date) constraint on
+ * expenses rules out duplicates even if two instances race.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecurringExpenseJob {
+
+    // Bounds how far a long-idle template catches up in one run; the rest follows next run
+    static final int MAX_CATCH_UP = 62;
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final UserRepository userRepository;
+    private final ExpenseService expenseService;
+    private final BalanceService balanceService;
+    private final SpendingRollupService spendingRollupService;
+    private final DataVersionService dataVersionService;
+    private final ExpenseEventPublisher expenseEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${recurring.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${recurring.cron:0 5 0 * * *}")
+    public void scheduledRun(){
+
+        run(LocalDate.now());
+    }
+
+    // Returns the number of expenses created
+    public int run(LocalDate today){
+
+        long started = System.nanoTime();
+        int created = 0;
+        int chunks = 0;
+        RecurringExpenseRepository.DueTemplate after = null;
+
+        while(true){
+            List<RecurringExpenseRepository.DueTemplate> due = after == null
+                    ? recurringExpenseRepository.findDue(today, Limit.of(chunkSize))
+                    : recurringExpenseRepository.findDueAfter(today, after.getNextRunDate(), after.getId(), Limit.of(chunkSize));
+
+            if(due.isEmpty()) break;
+
+            created += materializeWithRetry(due.stream().map(RecurringExpenseRepository.DueTemplate::getId).toList(), today);
+            after = due.get(due.size() - 1);
+            chunks++;
+        }
+
+        log.info("Recurring expenses: created {} in {} chunks ({} ms)", created, chunks, (System.nanoTime() - started) / 1_000_000);
+        return created;
+    }
+
+    private int materializeWithRetry(List<UUID> ids, LocalDate today){
+
+        try{
+            return materialize(ids, today);
+        }catch (RuntimeException e){
+            // One bad template shouldn't hold back the rest of its chunk
+            int created = 0;
+            for(UUID id : ids){
+                try{
+                    created += materialize(List.of(id), today);
+                }catch (RuntimeException itemFailure){
+                    log.warn("Recurring expense {} failed: {}", id, itemFailure.getMessage());
+                }
+            }
+            return created;
+        }
+    }
+
+    private int materialize(List<UUID> ids, LocalDate today){
+
+        Integer created = transactionTemplate.execute(status -> {
+
+            List<RecurringExpense> templates = recurringExpenseRepository.findWithSharesByIdIn(ids);
+            Map<UUID, User> usersById = resolveShareUsers(templates);
+
+            List<Expense> expenses = new ArrayList<>();
+            Map<Checkpoint, List<UUID>> checkpoints = new HashMap<>();
+            for(RecurringExpense template : templates){
+                Checkpoint checkpoint = occurrences(template, today, usersById, expenses);
+                if(checkpoint != null){
+                    checkpoints.computeIfAbsent(checkpoint, key -> new ArrayList<>()).add(template.getId());
+                }
+            }
+
+            List<ExpenseShare> shares = new ArrayList<>();
+            expenses.forEach(expense -> shares.addAll(expense.getShares()));
+
+            expenseRepository.saveAll(expenses);
+            expenseShareRepository.saveAll(shares);
+            balanceService.recordExpenses(expenses);
+            spendingRollupService.recordExpenses(expenses);
+            dataVersionService.bumpExpenses(expenses);
+            expenses.forEach(expense -> expenseEventPublisher.expenseChanged(ExpenseEventType.EXPENSE_CREATED,
+                    expense, expense.getCreator().getId(), DataVersionService.participants(List.of(expense))));
+
+            // Templates in a chunk mostly land on the same next date, so this is a handful of statements
+            checkpoints.forEach((checkpoint, templateIds) ->
+                    recurringExpenseRepository.advance(templateIds, checkpoint.nextRunDate(), checkpoint.active()));
+
+            entityManager.flush();
+            entityManager.clear();
+
+            return expenses.size();
+        });
+
+        return created != null ? created : 0;
+    }
+
+    // Adds every due occurrence of one template to expenses and returns where its checkpoint moves to
+    private Checkpoint occurrences(RecurringExpense template, LocalDate today, Map<UUID, User> usersById, List<Expense> expenses){
+
+        List<Expense> due = new ArrayList<>();
+        LocalDate date = template.getNextRunDate();
+        LocalDate endDate = template.getEndDate();
+
+        try{
+            CronExpression cron = RecurringSchedule.parse(template.getCron());
+
+            while(date != null && !date.isAfter(today) && (endDate == null || !date.isAfter(endDate))
+                    && due.size() < MAX_CATCH_UP){
+
+                Expense expense = expenseService.prepareExpense(
+                        RecurringExpenseService.toExpenseRequest(template, date), template.getCreator(), usersById);
+                expense.setRecurringExpenseId(template.getId());
+                due.add(expense);
+
+                date = RecurringSchedule.after(cron, date);
+            }
+        }catch (IllegalArgumentException e){
+            // Left due so it's retried once the problem (e.g. a deleted participant) is fixed
+            log.warn("Recurring expense {} skipped: {}", template.getId(), e.getMessage());
+            return null;
+        }
+
+        expenses.addAll(due);
+
+        boolean active = date != null && (endDate == null || !date.isAfter(endDate));
+        return new Checkpoint(date, active);
+    }
+
+    private Map<UUID, User> resolveShareUsers(List<RecurringExpense> templates){
+
+        Set<UUID> userIds = new HashSet<>();
+        for(RecurringExpense template : templates){
+            template.getShares().forEach(share -> userIds.add(share.getUserId()));
+        }
+
+        if(userIds.isEmpty()) return Map.of();
+
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private record Checkpoint(LocalDate nextRunDate, boolean active) {}
+}
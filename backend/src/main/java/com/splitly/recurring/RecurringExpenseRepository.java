@@ -0,0 +1,64 @@
+package com.splitly.recurring;
+
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, UUID> {
+
+    @EntityGraph(attributePaths = "shares")
+    List<RecurringExpense> findByCreatorIdOrderByNextRunDate(UUID creatorId);
+
+    /*
+     * Keyset pages of due templates in (nextRunDate, id) order, served by the (active, next_run_date, id)
+     * index. Processed templates move past today and drop out; ones that failed stay behind the key
+     * so they can't stall the run.
+     */
+    @Query("""
+            select r.nextRunDate as nextRunDate, r.id as id from RecurringExpense r
+            where r.active = true and r.nextRunDate <= :today
+            order by r.nextRunDate, r.id
+            """)
+    List<DueTemplate> findDue(@Param("today") LocalDate today, Limit limit);
+
+    @Query("""
+            select r.nextRunDate as nextRunDate, r.id as id from RecurringExpense r
+            where r.active = true and r.nextRunDate <= :today
+              and (r.nextRunDate > :afterDate or (r.nextRunDate = :afterDate and r.id > :afterId))
+            order by r.nextRunDate, r.id
+            """)
+    List<DueTemplate> findDueAfter(@Param("today") LocalDate today,
+                                   @Param("afterDate") LocalDate afterDate,
+                                   @Param("afterId") UUID afterId,
+                                   Limit limit);
+
+    interface DueTemplate {
+        LocalDate getNextRunDate();
+        UUID getId();
+    }
+
+    // Read-only: the job moves checkpoints with advance() instead of dirty checking every template
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            select distinct r from RecurringExpense r
+            join fetch r.creator
+            left join fetch r.shares
+            where r.id in :ids
+            """)
+    List<RecurringExpense> findWithSharesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update RecurringExpense r set r.nextRunDate = :next, r.active = :active where r.id in :ids")
+    int advance(@Param("ids") Collection<UUID> ids, @Param("next") LocalDate next, @Param("active") boolean active);
+}
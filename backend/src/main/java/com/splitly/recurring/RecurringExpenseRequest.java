@@ -0,0 +1,33 @@
+package com.splitly.recurring;
+
+import com.splitly.expense.ExpenseRequest;
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.SplitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringExpenseRequest {
+
+    private String title;
+    private BigDecimal amount;
+    private Category category;
+    private String description;
+    private PaymentMethod paymentMethod;
+    private SplitType splitType;
+    private List<ExpenseRequest.Share> shares;
+
+    private String cron;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,35 @@
+package com.splitly.recurring;
+
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.SplitType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurringExpenseResponse {
+
+    private UUID id;
+    private String title;
+    private BigDecimal amount;
+    private Category category;
+    private String description;
+    private PaymentMethod paymentMethod;
+    private SplitType splitType;
+    private List<RecurringShare> shares;
+    private String cron;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextRunDate;
+    private boolean active;
+}
@@ -0,0 +1,150 @@
+package com.splitly.recurring;
+
+import com.splitly.expense.ExpenseRequest;
+import com.splitly.expense.ExpenseService;
+import com.splitly.expense.enums.SplitType;
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.user.UserRepository;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseService {
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseService expenseService;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public RecurringExpenseResponse createRecurringExpense(AuthenticatedUser user, RecurringExpenseRequest request){
+
+        if(request.getSplitType() == SplitType.ITEMIZED){
+            throw new IllegalArgumentException("Itemized splits can't recur");
+        }
+
+        CronExpression cron = RecurringSchedule.parse(request.getCron());
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+
+        if(request.getEndDate() != null && request.getEndDate().isBefore(startDate)){
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        LocalDate firstRun = RecurringSchedule.firstOnOrAfter(cron, startDate);
+        if(firstRun == null || (request.getEndDate() != null && firstRun.isAfter(request.getEndDate()))){
+            throw new IllegalArgumentException("Schedule never fires between start and end date");
+        }
+
+        RecurringExpense recurringExpense = RecurringExpense.builder()
+                .creator(userRepository.getReferenceById(user.getId()))
+                .title(request.getTitle())
+                .amount(request.getAmount())
+                .category(request.getCategory())
+                .description(request.getDescription())
+                .paymentMethod(request.getPaymentMethod())
+                .splitType(request.getSplitType())
+                .shares(toShares(request.getShares()))
+                .cron(request.getCron())
+                .startDate(startDate)
+                .endDate(request.getEndDate())
+                .nextRunDate(firstRun)
+                .active(true)
+                .build();
+
+        // Fail now rather than on every scheduled run
+        expenseService.validate(toExpenseRequest(recurringExpense, firstRun));
+
+        recurringExpenseRepository.save(recurringExpense);
+
+        return toResponse(recurringExpense);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseResponse> getRecurringExpenses(AuthenticatedUser user){
+
+        return recurringExpenseRepository.findByCreatorIdOrderByNextRunDate(user.getId()).stream()
+                .map(RecurringExpenseService::toResponse)
+                .toList();
+    }
+
+    @Transactional
+    public void deleteRecurringExpense(AuthenticatedUser user, UUID id){
+
+        RecurringExpense recurringExpense = recurringExpenseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Recurring expense not found"));
+
+        if(!recurringExpense.getCreator().getId().equals(user.getId())){
+            throw new SecurityException("Access denied: You are not the creator of this recurring expense");
+        }
+
+        // Expenses already created from it are kept
+        recurringExpenseRepository.delete(recurringExpense);
+    }
+
+    // A fresh request per occurrence: the split engine writes the computed amounts back into the shares
+    static ExpenseRequest toExpenseRequest(RecurringExpense recurringExpense, LocalDate date){
+
+        List<ExpenseRequest.Share> shares = new ArrayList<>(recurringExpense.getShares().size());
+        for(RecurringShare share : recurringExpense.getShares()){
+            shares.add(ExpenseRequest.Share.builder()
+                    .userId(share.getUserId())
+                    .amountOwed(share.getAmountOwed())
+                    .percent(share.getPercent())
+                    .weight(share.getWeight())
+                    .build());
+        }
+
+        return ExpenseRequest.builder()
+                .title(recurringExpense.getTitle())
+                .amount(recurringExpense.getAmount())
+                .category(recurringExpense.getCategory())
+                .date(date)
+                .description(recurringExpense.getDescription())
+                .paymentMethod(recurringExpense.getPaymentMethod())
+                .splitType(recurringExpense.getSplitType())
+                .shares(shares)
+                .build();
+    }
+
+    private static List<RecurringShare> toShares(List<ExpenseRequest.Share> shares){
+
+        List<RecurringShare> result = new ArrayList<>();
+        if(shares == null) return result;
+
+        for(ExpenseRequest.Share share : shares){
+            result.add(RecurringShare.builder()
+                    .userId(share.getUserId())
+                    .amountOwed(share.getAmountOwed())
+                    .percent(share.getPercent())
+                    .weight(share.getWeight())
+                    .build());
+        }
+        return result;
+    }
+
+    private static RecurringExpenseResponse toResponse(RecurringExpense recurringExpense){
+
+        return RecurringExpenseResponse.builder()
+                .id(recurringExpense.getId())
+                .title(recurringExpense.getTitle())
+                .amount(recurringExpense.getAmount())
+                .category(recurringExpense.getCategory())
+                .description(recurringExpense.getDescription())
+                .paymentMethod(recurringExpense.getPaymentMethod())
+                .splitType(recurringExpense.getSplitType())
+                .shares(List.copyOf(recurringExpense.getShares()))
+                .cron(recurringExpense.getCron())
+                .startDate(recurringExpense.getStartDate())
+                .endDate(recurringExpense.getEndDate())
+                .nextRunDate(recurringExpense.getNextRunDate())
+                .active(recurringExpense.isActive())
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.splitly.recurring;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Date-level view of a cron expression: an occurrence is any day the expression fires on
+final class RecurringSchedule {
+
+    private RecurringSchedule(){}
+
+    static CronExpression parse(String cron){
+
+        if(cron == null || cron.isBlank()) throw new IllegalArgumentException("Cron expression is required");
+
+        return CronExpression.parse(cron);
+    }
+
+    // First occurrence on or after the given date, or null if the expression never fires again
+    static LocalDate firstOnOrAfter(CronExpression cron, LocalDate date){
+
+        LocalDateTime next = cron.next(date.atStartOfDay().minusNanos(1));
+        return next != null ? next.toLocalDate() : null;
+    }
+
+    // First occurrence on a later day than the given date
+    static LocalDate after(CronExpression cron, LocalDate date){
+
+        LocalDateTime next = cron.next(date.atTime(LocalTime.MAX));
+        return next != null ? next.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.splitly.recurring;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One participant of a recurring expense; mirrors ExpenseRequest.Share
+@Data
+@Builder
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurringShare {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    private BigDecimal amountOwed;
+
+    private BigDecimal percent;
+
+    private Integer weight;
+}
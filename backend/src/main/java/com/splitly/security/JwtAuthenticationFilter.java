@@ -1,5 +1,7 @@
 package com.splitly.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +21,9 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Claims already verified earlier in the chain (see RateLimitFilter)
+    static final String VERIFIED_CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".claims";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
@@ -35,12 +40,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = header.substring(7);
-        final String username = jwtService.extractUsername(jwt);
+
+        // Signature and expiry are checked once per request; every later check reads these claims
+        Claims claims = (Claims) request.getAttribute(VERIFIED_CLAIMS_ATTRIBUTE);
+        if(claims == null){
+            try {
+                claims = jwtService.verifyToken(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                filterChain.doFilter(request,response);
+                return;
+            }
+        }
+
+        final String username = claims.getSubject();
 
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
-            if(jwtService.isTokenValid(jwt,userDetails)){
+            if(jwtService.isTokenValid(claims,userDetails)){
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -1,46 +1,110 @@
 package com.splitly.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret-key}")
-    private String securityKey;
+    // Key and parser are immutable and thread-safe, so they are built once
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    public String generateToken(UserDetails userDetails) {
+    private final Timer verifyTimer;
+    private final Timer generateTimer;
+
+    // Optional cache of already-verified tokens, keyed by SHA-256 of the token; null when disabled
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
+
+    public JwtService(@Value("${jwt.secret-key}") String securityKey,
+                      @Value("${jwt.verified-cache.enabled:false}") boolean verifiedCacheEnabled,
+                      @Value("${jwt.verified-cache.max-size:100000}") long verifiedCacheMaxSize,
+                      MeterRegistry meterRegistry) {
+
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(securityKey));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+
+        this.verifyTimer = Timer.builder("security.jwt")
+                .tag("operation", "verify")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.generateTimer = Timer.builder("security.jwt")
+                .tag("operation", "generate")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.verifiedTokens = verifiedCacheEnabled
+                ? CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheMaxSize)
+                        .expireAfter(new ExpireAtTokenExpiry())
+                        .recordStats()
+                        .<ByteBuffer, Claims>build(), "verified-tokens")
+                : null;
+    }
 
-        System.out.println("Security key: " + securityKey);
+    public String generateToken(UserDetails userDetails) {
 
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // ✅ 24 hours
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact());
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(securityKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies signature and expiry once and returns the claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} for any invalid or expired token.
+     */
+    public Claims verifyToken(String token) {
+        return verifyTimer.record(() -> verify(token));
+    }
+
+    private Claims verify(String token) {
+
+        if (verifiedTokens == null) {
+            return extractAllClaims(token);
+        }
+
+        ByteBuffer digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+
+        if (claims == null) {
+            claims = extractAllClaims(token);
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+        }
+
+        return claims;
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -58,12 +122,39 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Evicts each cached token exactly when the token itself expires
+    private static final class ExpireAtTokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
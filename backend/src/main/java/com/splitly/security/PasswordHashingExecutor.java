@@ -0,0 +1,62 @@
+package com.splitly.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool, one thread per core by default, that runs the BCrypt calls of login and register
+ * off the request threads; nothing else is submitted to it, so its threads never wait on JDBC.
+ * The queue is bounded and full submissions are rejected straight away with a
+ * RejectedExecutionException, which the auth endpoints turn into a 503.
+ */
+@Component
+public class PasswordHashingExecutor implements Executor {
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService monitored;
+    private final TaskDecorator taskDecorator;
+
+    public PasswordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry,
+                                   ObjectProvider<TaskDecorator> taskDecorator) {
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.monitored = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+        // Same decoration as applicationTaskExecutor, so request context survives the hop through this pool
+        this.taskDecorator = taskDecorator.getIfUnique(() -> task -> task);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        monitored.execute(taskDecorator.decorate(command));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
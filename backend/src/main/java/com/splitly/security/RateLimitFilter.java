@@ -0,0 +1,139 @@
+package com.splitly.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket throttling ahead of JwtAuthenticationFilter, so a flood is turned away before
+ * any password hashing, user lookup or query runs. IP-keyed groups never look at the token.
+ * Subject-keyed groups key by the verified token subject; an unverified one could be forged
+ * to drain someone else's bucket. The verified claims are handed on so the JWT filter doesn't
+ * verify the token again.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Limiter(RateLimitProperties.Group group,
+                           List<PathPattern> patterns,
+                           long intervalNanos,
+                           Cache<String, TokenBucket> buckets,
+                           Counter rejected) {}
+
+    private final boolean enabled;
+    private final List<Limiter> limiters;
+    private final JwtService jwtService;
+
+    public RateLimitFilter(RateLimitProperties properties, JwtService jwtService, MeterRegistry meterRegistry) {
+
+        this.enabled = properties.isEnabled();
+        this.jwtService = jwtService;
+        this.limiters = properties.getGroups().entrySet().stream()
+                .sorted(Comparator.comparingInt(entry -> entry.getValue().getOrder()))
+                .map(entry -> limiter(entry.getKey(), entry.getValue(), properties, meterRegistry))
+                .toList();
+    }
+
+    private static Limiter limiter(String name, RateLimitProperties.Group group, RateLimitProperties properties, MeterRegistry meterRegistry){
+
+        if(group.getCapacity() < 1 || group.getRefillTokens() < 1){
+            throw new IllegalStateException("Rate limit group " + name + " needs a positive capacity and refill-tokens");
+        }
+
+        long intervalNanos = Math.max(1, group.getRefillPeriod().toNanos() / group.getRefillTokens());
+
+        // Never evict a bucket before it would have refilled, or an idle pause would reset a drained one early
+        Duration refillTime = Duration.ofNanos(intervalNanos * group.getCapacity());
+        Duration idle = properties.getIdleEviction().compareTo(refillTime) > 0 ? properties.getIdleEviction() : refillTime;
+
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeysPerGroup())
+                .expireAfterAccess(idle)
+                .build();
+
+        return new Limiter(group,
+                group.getPatterns().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                intervalNanos,
+                buckets,
+                Counter.builder("security.rate_limit.rejected").tag("group", name).register(meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request){
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Limiter limiter = match(request);
+        if(limiter == null){
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String subject = limiter.group().getKey() == RateLimitProperties.KeyType.SUBJECT ? verifiedSubject(request) : null;
+        String key = subject != null ? "sub:" + subject : "ip:" + request.getRemoteAddr();
+
+        long now = System.nanoTime();
+        long waitNanos = limiter.buckets().get(key, k -> new TokenBucket(now))
+                .tryAcquire(now, limiter.intervalNanos(), limiter.group().getCapacity());
+
+        if(waitNanos > 0){
+            limiter.rejected().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Limiter match(HttpServletRequest request){
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+
+        for(Limiter limiter : limiters){
+            for(PathPattern pattern : limiter.patterns()){
+                if(pattern.matches(path)) return limiter;
+            }
+        }
+        return null;
+    }
+
+    private String verifiedSubject(HttpServletRequest request){
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if(header == null || !header.startsWith("Bearer ")) return null;
+
+        try {
+            Claims claims = jwtService.verifyToken(header.substring(7));
+            request.setAttribute(JwtAuthenticationFilter.VERIFIED_CLAIMS_ATTRIBUTE, claims);
+            return claims.getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.splitly.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket limits by named route group. A request is counted against the first group, by
+ * order, with a matching pattern, e.g. {@code security.rate-limit.groups.auth.patterns=/auth/**}.
+ * Defaults are in ratelimit.properties; a single value can be overridden by its group name.
+ */
+@Data
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long (and at least until they would be full again) are evicted
+    private Duration idleEviction = Duration.ofMinutes(10);
+    private long maxKeysPerGroup = 100_000;
+
+    private Map<String, Group> groups = new HashMap<>();
+
+    public enum KeyType {
+        IP,
+        SUBJECT // falls back to IP when the request has no valid token
+    }
+
+    @Data
+    public static class Group {
+        private int order;
+        private List<String> patterns = new ArrayList<>();
+        private KeyType key = KeyType.SUBJECT;
+        private long capacity;                       // burst size
+        private long refillTokens;                   // tokens added per refillPeriod
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
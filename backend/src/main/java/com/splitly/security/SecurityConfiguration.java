@@ -1,10 +1,15 @@
 package com.splitly.security;
 
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.user.Role;
 import com.splitly.user.User;
 import com.splitly.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -24,12 +29,18 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @AllArgsConstructor
 @EnableWebSecurity
 @Configuration
+@PropertySource("classpath:ratelimit.properties")
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfiguration {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final MeterRegistry meterRegistry;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   RateLimitFilter rateLimitFilter) throws Exception {
 
         return http.
                 csrf(csrf-> csrf.disable())
@@ -38,6 +49,10 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests(auth-> auth
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Metrics describe traffic, queries, caches and pools, so only admins may scrape them
+                        .requestMatchers("/actuator/**").hasAuthority(Role.ADMIN.name())
+                        .requestMatchers("/balances/verify", "/balances/rebuild", "/analytics/rebuild", "/archive/run").hasAuthority(Role.ADMIN.name())
                         .anyRequest().authenticated())//All other endpoints must be authenticated
 
                 .sessionManagement(session->
@@ -45,6 +60,8 @@ public class SecurityConfiguration {
 
                 // We want this to run *before* the standard username/password filter
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttles before the JWT filter resolves the user
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
 
                 .build();
     }
@@ -52,14 +69,15 @@ public class SecurityConfiguration {
     @Bean
     public UserDetailsService userDetailsService(){
 
-        return username -> userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return username -> principalCache.get(username, name -> userRepository.findByUsername(name)
+                .map(AuthenticatedUser::of)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
     }
 
     @Bean
     public PasswordEncoder passwordEncoder(){
 
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -67,10 +85,12 @@ public class SecurityConfiguration {
 
         return (appUser, password) -> {
             String hashedPassword = passwordEncoder().encode(password);
-            User user = (User) appUser;
+            User user = userRepository.findById(((AuthenticatedUser) appUser).getId())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
             user.setPassword(hashedPassword);
             userRepository.save(user);
-            return user;
+            principalCache.invalidate(user.getUsername());
+            return AuthenticatedUser.of(user);
         };
     }
 
@@ -0,0 +1,36 @@
+package com.splitly.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single "theoretical arrival time" (the GCRA form), so taking a
+ * token is one compare-and-set on an AtomicLong with no lock and no allocation. The bucket
+ * is full when that time is at or before now; each token pushes it one interval further.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if the token was taken, otherwise the nanoseconds until one will be
+     */
+    long tryAcquire(long nowNanos, long intervalNanos, long capacity){
+
+        long burstNanos = intervalNanos * capacity;
+
+        for(;;){
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+
+            if(wait > 0) return wait;
+            if(theoreticalArrival.compareAndSet(arrival, next)) return 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.splitly.settlement;
+
+import com.splitly.user.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/settlements")
+public class SettlementController {
+
+    private final SettlementService settlementService;
+
+    @GetMapping("/plan")
+    public ResponseEntity<SettlementPlanResponse> plan(@AuthenticationPrincipal AuthenticatedUser user,
+                                                       @RequestParam List<UUID> users){
+
+        return ResponseEntity.ok(settlementService.plan(user, users));
+    }
+}
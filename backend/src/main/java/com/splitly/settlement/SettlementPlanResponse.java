@@ -0,0 +1,31 @@
+package com.splitly.settlement;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SettlementPlanResponse {
+
+    private int openShares;
+
+    @Data
+    @Builder
+    public static class Transfer {
+        private UUID fromUserId;
+        private String fromUsername;
+        private UUID toUserId;
+        private String toUsername;
+        private BigDecimal amount;
+    }
+
+    private List<Transfer> transfers;
+}
@@ -0,0 +1,212 @@
+package com.splitly.settlement;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum cash-flow settlement over a group of users.
+ *
+ * <p>Works purely on primitive arrays: users are dense indices, debts are
+ * parallel {@code int[]/int[]/long[]} edge arrays in minor units (cents).
+ * Netting is split across cores for large inputs; the matching phase greedily
+ * pairs the largest creditor with the largest debtor using two index heaps,
+ * which yields at most {@code n - 1} transfers.</p>
+ */
+public final class SettlementPlanner {
+
+    // Below this many edges the fork/join overhead outweighs the parallel speedup
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private SettlementPlanner() {
+    }
+
+    /**
+     * Net position per user: positive means the user is owed money, negative means the user owes.
+     */
+    public static long[] net(int userCount, int[] debtors, int[] creditors, long[] amounts) {
+        return net(userCount, debtors, creditors, amounts, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Parallelism as a parameter so tests can take the parallel path on any machine
+    static long[] net(int userCount, int[] debtors, int[] creditors, long[] amounts, int parallelism) {
+
+        int edges = amounts.length;
+        int chunks = Math.min(parallelism, Math.max(1, edges / PARALLEL_THRESHOLD));
+
+        if (chunks == 1) {
+            long[] net = new long[userCount];
+            netRange(net, debtors, creditors, amounts, 0, edges);
+            return net;
+        }
+
+        int chunkSize = (edges + chunks - 1) / chunks;
+
+        // Each chunk nets into its own array so no synchronisation is needed, then the partials are summed
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    long[] partial = new long[userCount];
+                    int from = chunk * chunkSize;
+                    netRange(partial, debtors, creditors, amounts, from, Math.min(edges, from + chunkSize));
+                    return partial;
+                })
+                .reduce((left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        left[i] += right[i];
+                    }
+                    return left;
+                })
+                .orElseGet(() -> new long[userCount]);
+    }
+
+    private static void netRange(long[] net, int[] debtors, int[] creditors, long[] amounts, int from, int to) {
+        for (int i = from; i < to; i++) {
+            net[debtors[i]] -= amounts[i];
+            net[creditors[i]] += amounts[i];
+        }
+    }
+
+    /**
+     * Turns net positions into transfers. The input array is not modified.
+     */
+    public static Plan settle(long[] net) {
+
+        long[] remaining = Arrays.copyOf(net, net.length);
+        IndexMaxHeap creditors = new IndexMaxHeap(remaining, false);
+        IndexMaxHeap debtors = new IndexMaxHeap(remaining, true);
+
+        for (int user = 0; user < remaining.length; user++) {
+            if (remaining[user] > 0) creditors.push(user);
+            else if (remaining[user] < 0) debtors.push(user);
+        }
+
+        Plan plan = new Plan(Math.max(1, Math.min(creditors.size(), debtors.size()) * 2));
+
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.pop();
+            int debtor = debtors.pop();
+
+            long amount = Math.min(remaining[creditor], -remaining[debtor]);
+            plan.add(debtor, creditor, amount);
+
+            remaining[creditor] -= amount;
+            remaining[debtor] += amount;
+
+            if (remaining[creditor] > 0) creditors.push(creditor);
+            if (remaining[debtor] < 0) debtors.push(debtor);
+        }
+
+        return plan;
+    }
+
+    public static Plan plan(int userCount, int[] debtors, int[] creditors, long[] amounts) {
+        return settle(net(userCount, debtors, creditors, amounts));
+    }
+
+    /**
+     * Transfers as parallel arrays: {@code from[i]} pays {@code to[i]} the amount {@code amounts[i]}.
+     */
+    public static final class Plan {
+
+        private int[] from;
+        private int[] to;
+        private long[] amounts;
+        private int size;
+
+        Plan(int capacity) {
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.amounts = new long[capacity];
+        }
+
+        void add(int payer, int payee, long amount) {
+            if (size == amounts.length) {
+                int capacity = size * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+            }
+            from[size] = payer;
+            to[size] = payee;
+            amounts[size] = amount;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int from(int i) {
+            return from[i];
+        }
+
+        public int to(int i) {
+            return to[i];
+        }
+
+        public long amount(int i) {
+            return amounts[i];
+        }
+    }
+
+    /**
+     * Binary max-heap of user indices ordered by {@code |keys[index]|}, without boxing.
+     */
+    private static final class IndexMaxHeap {
+
+        private final long[] keys;
+        private final boolean negated;
+        private final int[] heap;
+        private int size;
+
+        IndexMaxHeap(long[] keys, boolean negated) {
+            this.keys = keys;
+            this.negated = negated;
+            this.heap = new int[keys.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private long key(int index) {
+            return negated ? -keys[index] : keys[index];
+        }
+
+        void push(int index) {
+            int i = size++;
+            heap[i] = index;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (key(heap[parent]) >= key(heap[i])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        int pop() {
+            int top = heap[0];
+            heap[0] = heap[--size];
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) break;
+                int largest = left + 1 < size && key(heap[left + 1]) > key(heap[left]) ? left + 1 : left;
+                if (key(heap[i]) >= key(heap[largest])) break;
+                swap(i, largest);
+                i = largest;
+            }
+            return top;
+        }
+
+        private void swap(int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
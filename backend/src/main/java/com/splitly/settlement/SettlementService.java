@@ -0,0 +1,107 @@
+package com.splitly.settlement;
+
+import com.splitly.archive.ArchivedShareRepository;
+import com.splitly.expense.ExpenseShareRepository;
+import com.splitly.expense.enums.PaymentStatus;
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.user.User;
+import com.splitly.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SettlementService {
+
+    public static final int MAX_GROUP_SIZE = 10_000;
+    private static final int MINOR_UNITS = 2;
+
+    private final ExpenseShareRepository expenseShareRepository;
+    private final ArchivedShareRepository archivedShareRepository;
+    private final UserRepository userRepository;
+
+    @Transactional(readOnly = true)
+    public SettlementPlanResponse plan(AuthenticatedUser requester, List<UUID> users){
+
+        List<UUID> group = new ArrayList<>(new LinkedHashSet<>(users));
+
+        if(group.isEmpty() || group.size() > MAX_GROUP_SIZE){
+            throw new IllegalArgumentException("Group must contain between 1 and " + MAX_GROUP_SIZE + " users");
+        }
+        if(!group.contains(requester.getId())){
+            throw new SecurityException("Access denied: You are not part of this group");
+        }
+        checkSharesExpensesWith(requester, group);
+
+        Map<UUID, Integer> index = new HashMap<>(group.size() * 2);
+        for(int i = 0; i < group.size(); i++){
+            index.put(group.get(i), i);
+        }
+
+        List<Object[]> rows = expenseShareRepository.findDebtsWithin(group, PaymentStatus.UNPAID);
+
+        // Convert once to dense indices and cents so the planner never touches BigDecimal
+        int[] debtors = new int[rows.size()];
+        int[] creditors = new int[rows.size()];
+        long[] amounts = new long[rows.size()];
+        for(int i = 0; i < rows.size(); i++){
+            Object[] row = rows.get(i);
+            debtors[i] = index.get((UUID) row[0]);
+            creditors[i] = index.get((UUID) row[1]);
+            amounts[i] = ((BigDecimal) row[2]).setScale(MINOR_UNITS, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+
+        SettlementPlanner.Plan plan = SettlementPlanner.plan(group.size(), debtors, creditors, amounts);
+
+        Map<UUID, User> usersById = userRepository.findAllById(group).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<SettlementPlanResponse.Transfer> transfers = new ArrayList<>(plan.size());
+        for(int i = 0; i < plan.size(); i++){
+            User from = usersById.get(group.get(plan.from(i)));
+            User to = usersById.get(group.get(plan.to(i)));
+
+            transfers.add(SettlementPlanResponse.Transfer.builder()
+                    .fromUserId(from.getId())
+                    .fromUsername(from.getUsername())
+                    .toUserId(to.getId())
+                    .toUsername(to.getUsername())
+                    .amount(BigDecimal.valueOf(plan.amount(i), MINOR_UNITS))
+                    .build());
+        }
+
+        return SettlementPlanResponse.builder()
+                .openShares(rows.size())
+                .transfers(transfers)
+                .build();
+    }
+
+    // The plan shows who owes whom across the group, so every member must share an expense with the requester
+    private void checkSharesExpensesWith(AuthenticatedUser requester, List<UUID> group){
+
+        Set<UUID> others = new HashSet<>(group);
+        others.remove(requester.getId());
+        if(others.isEmpty()) return;
+
+        others.removeAll(expenseShareRepository.findCoParticipants(requester.getId(), others));
+        if(!others.isEmpty()) others.removeAll(archivedShareRepository.findCoParticipants(requester.getId(), others));
+
+        if(!others.isEmpty()){
+            throw new SecurityException("Access denied: You do not share an expense with every user in this group");
+        }
+    }
+}
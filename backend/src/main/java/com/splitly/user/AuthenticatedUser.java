@@ -0,0 +1,33 @@
+package com.splitly.user;
+
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a user taken when the principal is resolved. It is cached and shared
+ * by concurrent requests, so it never exposes the live entity; code that needs a User to
+ * attach to an expense looks it up with UserRepository.getReferenceById(getId()).
+ */
+@Value
+public class AuthenticatedUser implements UserDetails {
+
+    UUID id;
+    String username;
+    String password;
+    List<GrantedAuthority> authorities;
+    boolean accountNonExpired;
+    boolean accountNonLocked;
+    boolean credentialsNonExpired;
+    boolean enabled;
+
+    public static AuthenticatedUser of(User user){
+
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+                List.copyOf(user.getAuthorities()),
+                user.isAccountNonExpired(), user.isAccountNonLocked(), user.isCredentialsNonExpired(), user.isEnabled());
+    }
+}
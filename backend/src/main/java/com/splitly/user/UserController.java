@@ -20,8 +20,9 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String query){
+    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String query,
+                                                     @RequestParam(defaultValue = "10") int limit){
 
-        return ResponseEntity.ok(userService.searchUsers(query));
+        return ResponseEntity.ok(userService.searchUsers(query, limit));
     }
 }
\ No newline at end of file
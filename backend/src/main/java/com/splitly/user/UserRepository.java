@@ -1,15 +1,25 @@
 package com.splitly.user;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    // Login and token checks must see a user the moment they register. They call this outside any
+    // transaction, so it opens a read-write one on the primary; inside a read-only service
+    // transaction it joins that one and may read the replica like the rest of the service
+    @Transactional
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    List<User> findByUsernameContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-            String username, String firstName, String lastName
-    );
+    List<User> findByCreatedAtGreaterThanEqual(LocalDateTime createdAt);
+
+    // Keyset pages in id order for bulk loads: no offset to skip and no count query
+    List<User> findByOrderByIdAsc(Limit limit);
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.splitly.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory typeahead index over usernames, first and last names.
+ *
+ * <p>Prefix matches come from sorted username and name maps; infix matches are narrowed
+ * with a bigram or trigram posting list and then confirmed against the terms. Results are
+ * ranked: exact username, username prefix, name prefix, then infix. Each tier is collected
+ * before the next one and only up to the limit, so weaker matches never displace better
+ * ones. The index is loaded at startup, updated on register, and periodically picks up
+ * users created on other nodes.</p>
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    // Bigrams serve two-character queries, trigrams everything longer
+    private static final int MIN_GRAM = 2;
+    private static final int GRAM = 3;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private static final int EXACT = 0;
+    private static final int USERNAME_PREFIX = 1;
+    private static final int NAME_PREFIX = 2;
+    private static final int INFIX = 3;
+
+    private final UserRepository userRepository;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<UUID>> usernames = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<UUID>> names = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<UUID>> grams = new ConcurrentHashMap<>();
+
+    // Re-read a little history on each refresh to tolerate clock skew between nodes
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    // Start time of the last load/refresh; null until the initial load has run
+    private volatile LocalDateTime watermark;
+
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public record Entry(UUID id, String username, String firstName, String lastName, List<String> terms) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        List<User> page = userRepository.findByOrderByIdAsc(Limit.of(LOAD_PAGE_SIZE));
+        while(!page.isEmpty()){
+            page.forEach(this::add);
+            if(page.size() < LOAD_PAGE_SIZE) break;
+            page = userRepository.findByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId(), Limit.of(LOAD_PAGE_SIZE));
+        }
+
+        watermark = startedAt;
+        log.info("User search index loaded with {} users", entries.size());
+    }
+
+    // Picks up users registered through other instances since the last sync
+    @Scheduled(fixedDelayString = "${users.search-index.refresh-ms:30000}")
+    public void refresh(){
+
+        if(watermark == null) return;
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        userRepository.findByCreatedAtGreaterThanEqual(watermark.minus(REFRESH_OVERLAP)).forEach(this::add);
+        watermark = startedAt;
+    }
+
+    public void add(User user){
+
+        String username = normalizeOrNull(user.getUsername());
+        List<String> nameTerms = new ArrayList<>(2);
+        for(String value : new String[]{user.getFirstName(), user.getLastName()}){
+            String term = normalizeOrNull(value);
+            if(term != null) nameTerms.add(term);
+        }
+
+        List<String> userTerms = new ArrayList<>(3);
+        if(username != null) userTerms.add(username);
+        userTerms.addAll(nameTerms);
+
+        Entry entry = new Entry(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(), userTerms);
+        Entry previous = entries.put(user.getId(), entry);
+        if(previous != null) unindex(previous);
+
+        if(username != null) usernames.computeIfAbsent(username, key -> ConcurrentHashMap.newKeySet()).add(entry.id());
+        for(String term : nameTerms){
+            names.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(entry.id());
+        }
+        for(String term : userTerms){
+            forEachGram(term, gram -> grams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry.id()));
+        }
+    }
+
+    private void unindex(Entry entry){
+        // The username, when there is one, is the first term
+        int firstName = 0;
+        if(normalizeOrNull(entry.username()) != null){
+            Set<UUID> ids = usernames.get(entry.terms().get(0));
+            if(ids != null) ids.remove(entry.id());
+            firstName = 1;
+        }
+        for(String term : entry.terms().subList(firstName, entry.terms().size())){
+            Set<UUID> ids = names.get(term);
+            if(ids != null) ids.remove(entry.id());
+        }
+        for(String term : entry.terms()){
+            forEachGram(term, gram -> {
+                Set<UUID> gramIds = grams.get(gram);
+                if(gramIds != null) gramIds.remove(entry.id());
+            });
+        }
+    }
+
+    private static void forEachGram(String term, Consumer<String> action){
+        for(int n = MIN_GRAM; n <= GRAM; n++){
+            for(int i = 0; i + n <= term.length(); i++){
+                action.accept(term.substring(i, i + n));
+            }
+        }
+    }
+
+    public List<Entry> search(String query, int limit){
+
+        String q = normalize(query);
+        Map<UUID, Integer> ranks = new HashMap<>();
+
+        // Usernames are scanned in order, so the username tiers hold the alphabetically first matches
+        collect(ranks, usernames.get(q), EXACT, limit);
+        for(Set<UUID> ids : prefixed(usernames, q)){
+            if(!collect(ranks, ids, USERNAME_PREFIX, limit)) break;
+        }
+        for(Set<UUID> ids : prefixed(names, q)){
+            if(!collect(ranks, ids, NAME_PREFIX, limit)) break;
+        }
+
+        // Infix matches, narrowed by the query itself when it is a bigram, else by its rarest trigram
+        if(q.length() >= MIN_GRAM && ranks.size() < limit){
+            Set<UUID> rarest = null;
+            int n = Math.min(q.length(), GRAM);
+            for(int i = 0; i + n <= q.length(); i++){
+                Set<UUID> ids = grams.get(q.substring(i, i + n));
+                if(ids == null) {
+                    rarest = Set.of();
+                    break;
+                }
+                if(rarest == null || ids.size() < rarest.size()) rarest = ids;
+            }
+
+            for(UUID id : rarest){
+                if(ranks.size() >= limit) break;
+                if(ranks.containsKey(id)) continue;
+                Entry entry = entries.get(id);
+                if(entry != null && entry.terms().stream().anyMatch(term -> term.contains(q))){
+                    ranks.put(id, INFIX);
+                }
+            }
+        }
+
+        return ranks.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Integer>comparingByValue()
+                        .thenComparing(rank -> entries.get(rank.getKey()).username(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(rank -> entries.get(rank.getKey()))
+                .toList();
+    }
+
+    // Every term in [q, q + max char] starts with q
+    private static Collection<Set<UUID>> prefixed(NavigableMap<String, Set<UUID>> terms, String q){
+        return terms.subMap(q, true, q + Character.MAX_VALUE, true).values();
+    }
+
+    // Adds ids not ranked yet; returns false once the limit is reached
+    private boolean collect(Map<UUID, Integer> ranks, Set<UUID> ids, int rank, int limit){
+        if(ids == null) return ranks.size() < limit;
+        for(UUID id : ids){
+            if(ranks.size() >= limit) return false;
+            if(entries.containsKey(id)) ranks.putIfAbsent(id, rank);
+        }
+        return ranks.size() < limit;
+    }
+
+    private static String normalize(String value){
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeOrNull(String value){
+        return value != null && !value.isBlank() ? normalize(value) : null;
+    }
+}
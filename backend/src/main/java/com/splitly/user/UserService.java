@@ -3,6 +3,7 @@ package com.splitly.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -11,16 +12,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserService {
 
+    public static final int MIN_SEARCH_LENGTH = 2;
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
 
     private UserDTO toUserDto(User user){
         return UserDTO.builder()
                 .id(user.getId())
+                .username(user.getUsername())
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserByUsername(String username){
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User with specified username not found!"));
@@ -28,13 +35,17 @@ public class UserService {
         return toUserDto(user);
     }
 
-    public List<UserDTO> searchUsers(String query){
-        List<User> users = userRepository.findByUsernameContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                query, query, query
-        );
+    public List<UserDTO> searchUsers(String query, int limit){
+
+        if(query == null || query.trim().length() < MIN_SEARCH_LENGTH) return List.of();
 
-        return users.stream()
-                .map(this::toUserDto)
+        return userSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS)).stream()
+                .map(entry -> UserDTO.builder()
+                        .id(entry.id())
+                        .username(entry.username())
+                        .firstName(entry.firstName())
+                        .lastName(entry.lastName())
+                        .build())
                 .collect(Collectors.toList());
     }
 }
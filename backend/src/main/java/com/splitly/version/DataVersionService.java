@@ -0,0 +1,82 @@
+package com.splitly.version;
+
+import com.splitly.expense.Expense;
+import com.splitly.expense.ExpenseShare;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Per-user data versions behind the ETags of the expense read endpoints. Writers bump the
+ * version of every user involved in the changed expenses inside their own transaction;
+ * readers compare it against If-None-Match with one primary-key lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    private final UserDataVersionRepository userDataVersionRepository;
+
+    public long currentVersion(UUID userId){
+
+        return userDataVersionRepository.findVersion(userId).orElse(0L);
+    }
+
+    // Includes the user id so a browser shared by two accounts never revalidates one user's copy for the other
+    public String etag(UUID userId){
+
+        return "\"" + userId + "." + currentVersion(userId) + "\"";
+    }
+
+    // The creator and every share user of each expense
+    public static Set<UUID> participants(Collection<Expense> expenses){
+
+        Set<UUID> userIds = new HashSet<>();
+        for(Expense expense : expenses){
+            userIds.add(expense.getCreator().getId());
+            for(ExpenseShare share : expense.getShares()){
+                userIds.add(share.getUser().getId());
+            }
+        }
+        return userIds;
+    }
+
+    @Transactional
+    public void bumpExpenses(Collection<Expense> expenses){
+
+        bump(participants(expenses));
+    }
+
+    @Transactional
+    public void bump(Collection<UUID> userIds){
+
+        if(userIds.isEmpty()) return;
+
+        // Sorted so concurrent bumps lock the rows in the same order
+        Set<UUID> ids = new TreeSet<>(userIds);
+
+        int updated = userDataVersionRepository.increment(ids);
+        if(updated == ids.size()) return;
+
+        // First change for some of these users: only the ids without a row get an insert
+        Set<UUID> missing = new TreeSet<>(ids);
+        List<UUID> existing = userDataVersionRepository.findExistingIds(ids);
+        existing.forEach(missing::remove);
+
+        // More rows than the update touched means a concurrent first write created some in between and they
+        // missed this bump; bumping every existing row again only skips a version, which ETags don't mind
+        if(existing.size() > updated) userDataVersionRepository.increment(existing);
+
+        for(UUID userId : missing){
+            // Lost the race to create it, so the row exists now and still needs this bump
+            if(userDataVersionRepository.insertIfAbsent(userId) == 0) userDataVersionRepository.increment(List.of(userId));
+        }
+    }
+}
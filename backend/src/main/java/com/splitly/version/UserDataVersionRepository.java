@@ -0,0 +1,33 @@
+package com.splitly.version;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, UUID> {
+
+    @Query("select v.version from UserDataVersion v where v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") UUID userId);
+
+    @Query("select v.userId from UserDataVersion v where v.userId in :userIds")
+    List<UUID> findExistingIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query("update UserDataVersion v set v.version = v.version + 1 where v.userId in :userIds")
+    int increment(@Param("userIds") Collection<UUID> userIds);
+
+    // Starts the user's version at 1 unless another transaction already created the row; 0 means it lost that race
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "user_data_versions"))
+    @Query(value = "insert into user_data_versions (user_id, version) values (:userId, 1) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId);
+}
@@ -0,0 +1,195 @@
+package com.splitly.archive;
+
+import com.splitly.analytics.SpendingGroupBy;
+import com.splitly.analytics.SpendingResponse;
+import com.splitly.analytics.SpendingRollupService;
+import com.splitly.balance.BalanceResponse;
+import com.splitly.balance.BalanceService;
+import com.splitly.expense.ExpenseFeedResponse;
+import com.splitly.expense.ExpenseRequest;
+import com.splitly.expense.ExpenseResponse;
+import com.splitly.expense.ExpenseService;
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.expense.enums.PaymentStatus;
+import com.splitly.user.AuthenticatedUser;
+import com.splitly.user.Role;
+import com.splitly.user.User;
+import com.splitly.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Archiving only moves rows between tables, so nothing a user can read may change
+@SpringBootTest
+class ExpenseArchiveJobTest {
+
+    private static final int FEED_PAGE_SIZE = 3;
+
+    @Autowired
+    private ExpenseArchiveJob expenseArchiveJob;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void archivingLeavesEveryReadUnchanged() {
+        User alice = user("archive-alice");
+        User bob = user("archive-bob");
+        User carol = user("archive-carol");
+        List<User> users = List.of(alice, bob, carol);
+
+        LocalDate today = LocalDate.now();
+        LocalDate old = today.minusYears(2);
+
+        signIn(alice);
+        // Settled and old: archived. Several share a date so the feed's uuid tie-break is exercised
+        for (int i = 0; i < 6; i++) {
+            settle(create("Old dinner " + i, old.plusDays(i % 2), Category.FOOD, i % 2 == 0 ? PaymentMethod.CREDIT_CARD : PaymentMethod.CASH, bob, carol));
+        }
+        // Old but still open, and recent: both stay hot and keep the balances non-zero
+        create("Old taxi", old.plusMonths(1), Category.TRANSPORT, PaymentMethod.CASH, bob, carol);
+        create("Recent groceries", today.minusDays(3), Category.FOOD, PaymentMethod.DEBIT_CARD, bob);
+        signIn(bob);
+        settle(create("Old tickets", old.plusDays(1), Category.ENTERTAINMENT, PaymentMethod.CREDIT_CARD, alice, carol));
+        create("Recent rent", today.minusDays(1), Category.UTILITIES, PaymentMethod.BANK_TRANSFER, alice, carol);
+
+        Map<UUID, Object> before = snapshot(users);
+
+        int archived = expenseArchiveJob.run(today);
+
+        assertEquals(7, archived);
+        assertEquals(7, archivedExpenseRepository.count());
+        assertEquals(before, snapshot(users));
+
+        // Rebuilding from the hot and archived shares must land on the same rollups
+        spendingRollupService.rebuild();
+        assertEquals(before, snapshot(users));
+    }
+
+    // Everything each user can read: balances, spending, the whole feed in page order, and every expense by id
+    private Map<UUID, Object> snapshot(List<User> users) {
+        Map<UUID, Object> reads = new LinkedHashMap<>();
+        for (User user : users) {
+            AuthenticatedUser principal = signIn(user);
+            List<ExpenseResponse> feed = feed();
+            List<Object> byId = new ArrayList<>();
+            for (ExpenseResponse expense : feed) {
+                byId.add(normalize(expenseService.getExpenseById(expense.getId())));
+            }
+            reads.put(user.getId(), List.of(
+                    normalize(balanceService.getBalances(principal)),
+                    normalize(spendingRollupService.getSpending(principal, SpendingGroupBy.CATEGORY, null, null)),
+                    normalize(spendingRollupService.getSpending(principal, SpendingGroupBy.MONTH, null, null)),
+                    normalize(spendingRollupService.getSpending(principal, SpendingGroupBy.PAYMENT_METHOD, null, null)),
+                    feed.stream().map(this::normalize).toList(),
+                    byId));
+        }
+        return reads;
+    }
+
+    private List<ExpenseResponse> feed() {
+        List<ExpenseResponse> expenses = new ArrayList<>();
+        String cursor = null;
+        do {
+            ExpenseFeedResponse page = expenseService.getAllExpenses(cursor, FEED_PAGE_SIZE);
+            expenses.addAll(page.getExpenses());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertTrue(expenses.size() > FEED_PAGE_SIZE, "The feed should span several pages");
+        return expenses;
+    }
+
+    // Share order and BigDecimal scale are not part of what a client sees
+    private ExpenseResponse normalize(ExpenseResponse expense) {
+        expense.setAmount(expense.getAmount().stripTrailingZeros());
+        expense.setShares(expense.getShares().stream()
+                .peek(share -> share.setAmountOwed(share.getAmountOwed().stripTrailingZeros()))
+                .sorted(Comparator.comparing(ExpenseResponse.ShareResponse::getShareId))
+                .toList());
+        return expense;
+    }
+
+    private BalanceResponse normalize(BalanceResponse balances) {
+        balances.setTotalOwedToYou(balances.getTotalOwedToYou().stripTrailingZeros());
+        balances.setTotalYouOwe(balances.getTotalYouOwe().stripTrailingZeros());
+        balances.getBalances().forEach(balance -> balance.setAmount(balance.getAmount().stripTrailingZeros()));
+        return balances;
+    }
+
+    private SpendingResponse normalize(SpendingResponse spending) {
+        spending.setTotal(spending.getTotal().stripTrailingZeros());
+        spending.getBuckets().forEach(bucket -> bucket.setAmount(bucket.getAmount().stripTrailingZeros()));
+        return spending;
+    }
+
+    private ExpenseResponse create(String title, LocalDate date, Category category, PaymentMethod paymentMethod, User... friends) {
+        List<ExpenseRequest.Share> shares = new ArrayList<>();
+        for (User friend : friends) {
+            shares.add(ExpenseRequest.Share.builder().userId(friend.getId()).amountOwed(new BigDecimal("12.50")).build());
+        }
+        return expenseService.createExpense(ExpenseRequest.builder()
+                .title(title)
+                .amount(new BigDecimal("40.00"))
+                .date(date)
+                .category(category)
+                .paymentMethod(paymentMethod)
+                .shares(shares)
+                .build());
+    }
+
+    private void settle(ExpenseResponse expense) {
+        for (ExpenseResponse.ShareResponse share : expense.getShares()) {
+            if (share.getStatus() == PaymentStatus.UNPAID) expenseService.payExpenseShare(share.getShareId());
+        }
+    }
+
+    private User user(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .firstName(username)
+                .password("{noop}secret")
+                .role(Role.USER)
+                .build());
+    }
+
+    private static AuthenticatedUser signIn(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.of(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return principal;
+    }
+}
@@ -0,0 +1,113 @@
+package com.splitly.config;
+
+import com.splitly.analytics.SpendingRollupRepository;
+import com.splitly.balance.BalanceRepository;
+import com.splitly.expense.Expense;
+import com.splitly.expense.ExpenseRepository;
+import com.splitly.expense.enums.Category;
+import com.splitly.expense.enums.PaymentMethod;
+import com.splitly.user.Role;
+import com.splitly.user.User;
+import com.splitly.user.UserRepository;
+import com.splitly.version.UserDataVersionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The native first-write inserts declare the table they touch, so they must not drop unrelated cache regions
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private SpendingRollupRepository spendingRollupRepository;
+
+    @Autowired
+    private UserDataVersionRepository userDataVersionRepository;
+
+    private User debtor;
+    private User creditor;
+    private UUID expenseId;
+
+    @BeforeEach
+    void setUp() {
+        debtor = user();
+        creditor = user();
+        expenseId = expenseRepository.save(Expense.builder()
+                .title("Cached dinner")
+                .amount(new BigDecimal("20.00"))
+                .date(LocalDate.now())
+                .category(Category.FOOD)
+                .paymentMethod(PaymentMethod.CASH)
+                .creator(creditor)
+                .build()).getUuid();
+
+        transactionTemplate.executeWithoutResult(status -> expenseRepository.findById(expenseId));
+        assertTrue(cached(), "The expense should be in the second-level cache once read");
+    }
+
+    @Test
+    void balanceUpsertKeepsCachedExpenses() {
+        int inserted = transactionTemplate.execute(status ->
+                balanceRepository.insertBalanceIfAbsent(UUID.randomUUID(), debtor.getId(), creditor.getId(), BigDecimal.TEN));
+
+        assertEquals(1, inserted);
+        assertTrue(cached());
+    }
+
+    @Test
+    void rollupUpsertKeepsCachedExpenses() {
+        int inserted = transactionTemplate.execute(status ->
+                spendingRollupRepository.insertRollupIfAbsent(UUID.randomUUID(), debtor.getId(), Category.FOOD.name(),
+                        LocalDate.now().withDayOfMonth(1), PaymentMethod.CASH.name(), BigDecimal.TEN, 1));
+
+        assertEquals(1, inserted);
+        assertTrue(cached());
+    }
+
+    @Test
+    void versionUpsertKeepsCachedExpenses() {
+        int inserted = transactionTemplate.execute(status -> userDataVersionRepository.insertIfAbsent(debtor.getId()));
+
+        assertEquals(1, inserted);
+        assertTrue(cached());
+    }
+
+    private boolean cached() {
+        return entityManagerFactory.getCache().contains(Expense.class, expenseId);
+    }
+
+    private User user() {
+        String username = "cache-" + UUID.randomUUID();
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .role(Role.USER)
+                .build());
+    }
+}
@@ -0,0 +1,182 @@
+package com.splitly.datasource;
+
+import com.splitly.expense.ExpenseController;
+import com.splitly.expense.ExpenseFeedResponse;
+import com.splitly.expense.ExpenseService;
+import com.splitly.user.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+// Two embedded databases stand in for the primary and the replica; each knows its own name
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.routing.lag-query=select seconds from replica_lag",
+        "datasource.routing.max-lag=2s",
+        "datasource.routing.lag-check-ms=3600000"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ExpenseController expenseController;
+
+    @MockitoBean
+    private ExpenseService expenseService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        execute(primary, "create table if not exists db_marker(name varchar(16))",
+                "delete from db_marker",
+                "insert into db_marker values ('primary')");
+        execute(replica, "create table if not exists db_marker(name varchar(16))",
+                "delete from db_marker",
+                "insert into db_marker values ('replica')",
+                "create table if not exists user_data_versions(user_id uuid primary key, version bigint not null)",
+                "delete from user_data_versions",
+                "create table if not exists replica_lag(seconds double precision)",
+                "delete from replica_lag",
+                "insert into replica_lag values (0)");
+        lagMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplica() {
+        assertEquals("replica", readMarker(true));
+        assertEquals("primary", readMarker(false));
+    }
+
+    @Test
+    void replicaSessionsDoNotFillTheSecondLevelCache() {
+        TransactionTemplate readOnly = template(true);
+        assertEquals(CacheMode.GET, readOnly.execute(status -> entityManager.unwrap(Session.class).getCacheMode()));
+    }
+
+    @Test
+    void writerReadsThePrimaryForTheStickyWindow() {
+        authenticate(UUID.randomUUID());
+        template(false).executeWithoutResult(status ->
+                entityManager.createNativeQuery("insert into db_marker values ('written')").executeUpdate());
+
+        assertEquals("primary", readMarker(true));
+
+        authenticate(UUID.randomUUID());
+        assertEquals("replica", readMarker(true));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() throws Exception {
+        execute(replica, "update replica_lag set seconds = 10");
+        lagMonitor.check();
+        assertEquals("primary", readMarker(true));
+
+        execute(replica, "update replica_lag set seconds = 1");
+        lagMonitor.check();
+        assertEquals("replica", readMarker(true));
+    }
+
+    @Test
+    void unreadableLagFallsBackToThePrimary() throws Exception {
+        execute(replica, "delete from replica_lag");
+        lagMonitor.check();
+        assertEquals("primary", readMarker(true));
+    }
+
+    @Test
+    void etagAndBodyComeFromTheSameDataSource() throws Exception {
+        UUID userId = UUID.randomUUID();
+        // The replica has not seen the latest bump yet
+        execute(primary, "insert into user_data_versions(user_id, version) values ('" + userId + "', 2)");
+        execute(replica, "insert into user_data_versions(user_id, version) values ('" + userId + "', 1)");
+
+        // The body reports the data source it was read from
+        when(expenseService.getAllExpenses(any(), anyInt())).thenAnswer(invocation ->
+                ExpenseFeedResponse.builder().nextCursor(currentMarker()).build());
+
+        AuthenticatedUser user = principal(userId);
+        ResponseEntity<ExpenseFeedResponse> response = expenseController.getAllExpenses(user,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()), null, 20);
+
+        assertEquals("replica", response.getBody().getNextCursor());
+        assertEquals("\"" + userId + ".1\"", response.getHeaders().getETag());
+    }
+
+    private String readMarker(boolean readOnly) {
+        return template(readOnly).execute(status -> currentMarker());
+    }
+
+    private String currentMarker() {
+        List<?> names = entityManager.createNativeQuery("select name from db_marker order by name").getResultList();
+        return (String) names.get(0);
+    }
+
+    private TransactionTemplate template(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private static AuthenticatedUser principal(UUID userId) {
+        return new AuthenticatedUser(userId, userId.toString(), null, List.of(), true, true, true, true);
+    }
+
+    private static void authenticate(UUID userId) {
+        AuthenticatedUser user = principal(userId);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static void execute(DataSource dataSource, String... sql) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setReadOnly(false);
+            for (String s : sql) statement.execute(s);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.splitly.expense;
+
+import com.splitly.expense.enums.SplitType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Property checks over seeded random splits: the shares must always add up to Expense.amount
+class SplitEngineTest {
+
+    private static final int RUNS = 5_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void equalSplitsSumToAmount() {
+        for (int run = 0; run < RUNS; run++) {
+            ExpenseRequest request = request(SplitType.EQUAL, randomAmount(), 1 + random.nextInt(200));
+
+            SplitEngine.apply(request);
+
+            assertSumsToAmount(request);
+            assertWithinOneCent(request, equalWeights(request.getShares().size()));
+        }
+    }
+
+    @Test
+    void percentSplitsSumToAmount() {
+        for (int run = 0; run < RUNS; run++) {
+            ExpenseRequest request = request(SplitType.PERCENT, randomAmount(), 1 + random.nextInt(50));
+
+            long[] basisPoints = randomPartition(10_000, request.getShares().size());
+            for (int i = 0; i < basisPoints.length; i++) {
+                request.getShares().get(i).setPercent(BigDecimal.valueOf(basisPoints[i], 2));
+            }
+
+            SplitEngine.apply(request);
+
+            assertSumsToAmount(request);
+            assertWithinOneCent(request, basisPoints);
+        }
+    }
+
+    @Test
+    void weightedSplitsSumToAmount() {
+        for (int run = 0; run < RUNS; run++) {
+            ExpenseRequest request = request(SplitType.WEIGHTED, randomAmount(), 1 + random.nextInt(200));
+
+            long[] weights = new long[request.getShares().size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = 1 + random.nextInt(10);
+                request.getShares().get(i).setWeight((int) weights[i]);
+            }
+
+            SplitEngine.apply(request);
+
+            assertSumsToAmount(request);
+            assertWithinOneCent(request, weights);
+        }
+    }
+
+    @Test
+    void itemizedSplitsSumToAmount() {
+        for (int run = 0; run < RUNS; run++) {
+            int participants = 1 + random.nextInt(20);
+            List<ExpenseRequest.Share> shares = new ArrayList<>();
+            long itemsTotal = 0;
+
+            for (int i = 0; i < participants; i++) {
+                List<BigDecimal> items = new ArrayList<>();
+                for (int item = 0; item < 1 + random.nextInt(4); item++) {
+                    long price = 1 + random.nextInt(5_000);
+                    items.add(BigDecimal.valueOf(price, 2));
+                    itemsTotal += price;
+                }
+                shares.add(ExpenseRequest.Share.builder().userId(UUID.randomUUID()).items(items).build());
+            }
+
+            long total = itemsTotal + random.nextInt((int) Math.max(1, itemsTotal / 4));
+            ExpenseRequest request = ExpenseRequest.builder()
+                    .amount(BigDecimal.valueOf(total, 2))
+                    .splitType(SplitType.ITEMIZED)
+                    .shares(shares)
+                    .build();
+
+            SplitEngine.apply(request);
+
+            assertSumsToAmount(request);
+            for (ExpenseRequest.Share share : shares) {
+                long items = share.getItems().stream().mapToLong(price -> SplitEngine.toMinorUnits(price, "")).sum();
+                assertTrue(SplitEngine.toMinorUnits(share.getAmountOwed(), "") >= items);
+            }
+        }
+    }
+
+    @Test
+    void remainderCentsAreDeterministic() {
+        ExpenseRequest first = request(SplitType.EQUAL, new BigDecimal("100.00"), 3);
+        ExpenseRequest second = request(SplitType.EQUAL, new BigDecimal("100.00"), 3);
+
+        SplitEngine.apply(first);
+        SplitEngine.apply(second);
+
+        assertEquals(new BigDecimal("33.34"), first.getShares().get(0).getAmountOwed());
+        assertEquals(new BigDecimal("33.33"), first.getShares().get(2).getAmountOwed());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(first.getShares().get(i).getAmountOwed(), second.getShares().get(i).getAmountOwed());
+        }
+    }
+
+    @Test
+    void largeAmountsDoNotOverflow() {
+        ExpenseRequest request = request(SplitType.WEIGHTED, new BigDecimal("92233720368547758.07"), 3);
+        request.getShares().forEach(share -> share.setWeight(Integer.MAX_VALUE));
+
+        SplitEngine.apply(request);
+
+        assertSumsToAmount(request);
+    }
+
+    @Test
+    void rejectsInvalidSplits() {
+        ExpenseRequest percent = request(SplitType.PERCENT, new BigDecimal("10.00"), 2);
+        percent.getShares().forEach(share -> share.setPercent(new BigDecimal("40")));
+        assertThrows(IllegalArgumentException.class, () -> SplitEngine.apply(percent));
+
+        ExpenseRequest fractionalCents = request(SplitType.EQUAL, new BigDecimal("10.005"), 2);
+        assertThrows(IllegalArgumentException.class, () -> SplitEngine.apply(fractionalCents));
+
+        ExpenseRequest noParticipants = request(SplitType.EQUAL, new BigDecimal("10.00"), 0);
+        assertThrows(IllegalArgumentException.class, () -> SplitEngine.apply(noParticipants));
+
+        ExpenseRequest zeroWeights = request(SplitType.WEIGHTED, new BigDecimal("10.00"), 2);
+        zeroWeights.getShares().forEach(share -> share.setWeight(0));
+        assertThrows(IllegalArgumentException.class, () -> SplitEngine.apply(zeroWeights));
+
+        ExpenseRequest tooManyItems = request(SplitType.ITEMIZED, new BigDecimal("10.00"), 1);
+        tooManyItems.getShares().get(0).setItems(List.of(new BigDecimal("10.01")));
+        assertThrows(IllegalArgumentException.class, () -> SplitEngine.apply(tooManyItems));
+    }
+
+    private ExpenseRequest request(SplitType type, BigDecimal amount, int participants) {
+        List<ExpenseRequest.Share> shares = new ArrayList<>();
+        for (int i = 0; i < participants; i++) {
+            shares.add(ExpenseRequest.Share.builder().userId(UUID.randomUUID()).build());
+        }
+        return ExpenseRequest.builder().amount(amount).splitType(type).shares(shares).build();
+    }
+
+    private BigDecimal randomAmount() {
+        return BigDecimal.valueOf(1 + random.nextInt(10_000_000), 2);
+    }
+
+    // Random non-negative parts of total, some of them zero
+    private long[] randomPartition(long total, int parts) {
+        long[] result = new long[parts];
+        long left = total;
+        for (int i = 0; i < parts - 1; i++) {
+            result[i] = random.nextInt(4) == 0 ? 0 : (long) (random.nextDouble() * left);
+            left -= result[i];
+        }
+        result[parts - 1] = left;
+        return result;
+    }
+
+    private static long[] equalWeights(int n) {
+        long[] weights = new long[n];
+        Arrays.fill(weights, 1);
+        return weights;
+    }
+
+    private static void assertSumsToAmount(ExpenseRequest request) {
+        BigDecimal sum = request.getShares().stream()
+                .map(ExpenseRequest.Share::getAmountOwed)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(0, sum.compareTo(request.getAmount()), () -> sum + " != " + request.getAmount());
+    }
+
+    private static void assertWithinOneCent(ExpenseRequest request, long[] weights) {
+        long total = SplitEngine.toMinorUnits(request.getAmount(), "");
+        long weightSum = 0;
+        for (long weight : weights) weightSum += weight;
+
+        for (int i = 0; i < weights.length; i++) {
+            long part = SplitEngine.toMinorUnits(request.getShares().get(i).getAmountOwed(), "");
+            double exact = (double) total * weights[i] / weightSum;
+            assertTrue(part >= 0 && Math.abs(part - exact) < 1.0 + 1e-6, () -> part + " vs " + exact);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.splitly.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestMetricsFilter filter = new RequestMetricsFilter(meterRegistry, new QueryBudgetProperties());
+
+    @Test
+    void synchronousRequestIsRecordedWhenTheFilterReturns() throws Exception {
+        MockHttpServletRequest request = request("/balances");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            RequestQueryStats.statementPrepared("select 1");
+            RequestQueryStats.statementPrepared("select 2");
+        });
+
+        assertEquals(2, statements("/balances").totalAmount());
+    }
+
+    @Test
+    void asyncRequestCountsPoolThreadsAndDispatchesAndIsRecordedOnCompletion() throws Exception {
+        MockHttpServletRequest request = request("/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            // First dispatch: one query on the request thread, one on a pool thread, then the request goes async
+            filter.doFilter(request, response, (req, res) -> {
+                RequestQueryStats.statementPrepared("select user");
+                request.startAsync();
+                CompletableFuture.runAsync(RequestQueryStats.propagate(() -> RequestQueryStats.statementPrepared("insert user")), pool).join();
+            });
+            assertNull(summary("/auth/login"), "Nothing is recorded while the request is still async");
+
+            // Async dispatch that writes the result
+            request.setDispatcherType(DispatcherType.ASYNC);
+            request.setAsyncStarted(false);
+            filter.doFilter(request, response, (req, res) -> RequestQueryStats.statementPrepared("select token"));
+            assertNull(summary("/auth/login"));
+
+            ((MockAsyncContext) request.getAsyncContext()).complete();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        DistributionSummary statements = statements("/auth/login");
+        assertEquals(1, statements.count());
+        assertEquals(3, statements.totalAmount());
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", pattern);
+        request.setAsyncSupported(true);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+
+    private DistributionSummary statements(String uri) {
+        return meterRegistry.get("http.server.sql.statements").tag("uri", uri).summary();
+    }
+
+    private DistributionSummary summary(String uri) {
+        return meterRegistry.find("http.server.sql.statements").tag("uri", uri).summary();
+    }
+}
@@ -0,0 +1,75 @@
+package com.splitly.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), mock(JwtService.class), new SimpleMeterRegistry());
+
+    @Test
+    void drainedGroupGets429WithRetryAfter() throws Exception {
+        assertEquals(HttpStatus.OK.value(), send("/auth/login").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("/auth/login").getStatus());
+
+        MockHttpServletResponse rejected = send("/auth/register");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        // Two tokens a minute: the next one is about 30 seconds away, rounded up
+        assertEquals("30", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void firstMatchingGroupByOrderApplies() throws Exception {
+        send("/auth/login");
+        send("/auth/login");
+
+        // /** also matches /auth/**, but the auth group comes first, so only auth requests are throttled
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("/auth/login").getStatus());
+        MockHttpServletResponse other = send("/expenses/all");
+        assertEquals(HttpStatus.OK.value(), other.getStatus());
+        assertNull(other.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    private MockHttpServletResponse send(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("203.0.113.7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Group auth = new RateLimitProperties.Group();
+        auth.setOrder(1);
+        auth.setPatterns(List.of("/auth/**"));
+        auth.setKey(RateLimitProperties.KeyType.IP);
+        auth.setCapacity(2);
+        auth.setRefillTokens(2);
+        auth.setRefillPeriod(Duration.ofMinutes(1));
+
+        RateLimitProperties.Group fallback = new RateLimitProperties.Group();
+        fallback.setOrder(2);
+        fallback.setPatterns(List.of("/**"));
+        fallback.setCapacity(100);
+        fallback.setRefillTokens(100);
+        fallback.setRefillPeriod(Duration.ofSeconds(1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put("auth", auth);
+        properties.getGroups().put("default", fallback);
+        return properties;
+    }
+}
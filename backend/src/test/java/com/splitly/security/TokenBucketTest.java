@@ -0,0 +1,105 @@
+package com.splitly.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Time is passed in explicitly, so every case runs on a fake nanosecond clock
+class TokenBucketTest {
+
+    private static final long INTERVAL = 1_000_000_000L; // one token per second
+    private static final long CAPACITY = 5;
+    private static final long START = 42_000_000_000L;
+
+    @Test
+    void fullBucketAllowsABurstOfCapacity() {
+        TokenBucket bucket = new TokenBucket(START);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(START, INTERVAL, CAPACITY));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(START, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void rejectionReportsTheTimeUntilTheNextToken() {
+        TokenBucket bucket = new TokenBucket(START);
+        drain(bucket, START);
+
+        assertEquals(INTERVAL - 250_000_000L, bucket.tryAcquire(START + 250_000_000L, INTERVAL, CAPACITY));
+        // A rejected attempt takes nothing
+        assertEquals(INTERVAL - 250_000_000L, bucket.tryAcquire(START + 250_000_000L, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(START);
+        drain(bucket, START);
+
+        long later = START + 3 * INTERVAL;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later, INTERVAL, CAPACITY));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(later, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void idleTimeNeverBanksMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(START);
+        drain(bucket, START);
+
+        long muchLater = START + 1_000 * INTERVAL;
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(muchLater, INTERVAL, CAPACITY));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(muchLater, INTERVAL, CAPACITY));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedCapacity() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 1_000;
+        long capacity = 100;
+        TokenBucket bucket = new TokenBucket(START);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> task = () -> {
+                    start.await();
+                    int taken = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (bucket.tryAcquire(START, INTERVAL, capacity) == 0) taken++;
+                    }
+                    return taken;
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+
+            int taken = 0;
+            for (Future<Integer> result : results) {
+                taken += result.get();
+            }
+            assertEquals(capacity, taken);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void drain(TokenBucket bucket, long now) {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(now, INTERVAL, CAPACITY));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.splitly.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Property checks over seeded random debt graphs: a plan must move exactly the net positions, in few transfers
+class SettlementPlannerTest {
+
+    private static final int RUNS = 2_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void transfersReproduceNetBalances() {
+        for (int run = 0; run < RUNS; run++) {
+            Edges edges = randomEdges(2 + random.nextInt(50), random.nextInt(300));
+
+            long[] net = SettlementPlanner.net(edges.users, edges.debtors, edges.creditors, edges.amounts);
+            SettlementPlanner.Plan plan = SettlementPlanner.settle(net);
+
+            long[] moved = new long[edges.users];
+            for (int i = 0; i < plan.size(); i++) {
+                assertTrue(plan.amount(i) > 0, "Transfers must be positive");
+                assertTrue(net[plan.from(i)] < 0 && net[plan.to(i)] > 0, "Only debtors pay and only creditors are paid");
+                moved[plan.from(i)] -= plan.amount(i);
+                moved[plan.to(i)] += plan.amount(i);
+            }
+            assertArrayEquals(net, moved);
+        }
+    }
+
+    @Test
+    void needsAtMostOneTransferFewerThanUnsettledUsers() {
+        for (int run = 0; run < RUNS; run++) {
+            Edges edges = randomEdges(2 + random.nextInt(50), random.nextInt(300));
+
+            long[] net = SettlementPlanner.net(edges.users, edges.debtors, edges.creditors, edges.amounts);
+            long unsettled = Arrays.stream(net).filter(amount -> amount != 0).count();
+
+            SettlementPlanner.Plan plan = SettlementPlanner.settle(net);
+
+            assertTrue(plan.size() <= Math.max(0, unsettled - 1),
+                    plan.size() + " transfers for " + unsettled + " unsettled users");
+            assertTrue(plan.size() <= edges.users - 1);
+        }
+    }
+
+    @Test
+    void settledGroupNeedsNoTransfers() {
+        // A owes B, B owes C, C owes A the same amount
+        long[] net = SettlementPlanner.net(3, new int[]{0, 1, 2}, new int[]{1, 2, 0}, new long[]{500, 500, 500});
+
+        assertArrayEquals(new long[3], net);
+        assertEquals(0, SettlementPlanner.settle(net).size());
+    }
+
+    @Test
+    void parallelNettingMatchesSerialNetting() {
+        int users = 1_000;
+        Edges edges = randomEdges(users, SettlementPlanner.PARALLEL_THRESHOLD * 8 + 123);
+
+        long[] serial = SettlementPlanner.net(users, edges.debtors, edges.creditors, edges.amounts, 1);
+
+        // Chunk counts that don't divide the edge count evenly, so the last chunk is short
+        for (int parallelism : new int[]{2, 3, 7}) {
+            assertArrayEquals(serial, SettlementPlanner.net(users, edges.debtors, edges.creditors, edges.amounts, parallelism));
+        }
+        assertEquals(0, Arrays.stream(serial).sum());
+    }
+
+    private Edges randomEdges(int users, int count) {
+        Edges edges = new Edges(users, count);
+        for (int i = 0; i < count; i++) {
+            int debtor = random.nextInt(users);
+            int creditor = random.nextInt(users - 1);
+            edges.debtors[i] = debtor;
+            edges.creditors[i] = creditor >= debtor ? creditor + 1 : creditor;
+            edges.amounts[i] = 1 + random.nextInt(100_000);
+        }
+        return edges;
+    }
+
+    private static final class Edges {
+
+        final int users;
+        final int[] debtors;
+        final int[] creditors;
+        final long[] amounts;
+
+        Edges(int users, int count) {
+            this.users = users;
+            this.debtors = new int[count];
+            this.creditors = new int[count];
+            this.amounts = new long[count];
+        }
+    }
+}
@@ -15,6 +15,8 @@ const AddExpenseForm = ({ onSuccess, onClose, expenseToEdit }) => {
   const [searchResults, setSearchResults] = useState([]);
   const [selectedFriends, setSelectedFriends] = useState([]);
   const [isSearching, setIsSearching] = useState(false);
+  // One key per opened form, so resubmitting after a timeout can't create the expense twice
+  const [idempotencyKey] = useState(() => crypto.randomUUID());
 
   useEffect(() => {
     const delayDebounceFn = setTimeout(async () => {
@@ -89,13 +91,15 @@ const AddExpenseForm = ({ onSuccess, onClose, expenseToEdit }) => {
         date,
         category,
         paymentMethod,
-        shares: sharesList 
+        shares: sharesList,
+        // Lets the server reject the edit with 409 if someone else changed the expense meanwhile
+        version: expenseToEdit?.version
       };
       
       if (expenseToEdit) {
         await editExpense(expenseToEdit.id, expenseData);
       } else {
-        await createExpense(expenseData);
+        await createExpense(expenseData, idempotencyKey);
       }
       
       if (onSuccess) onSuccess();
@@ -1,19 +1,23 @@
-import React, { useState, useEffect } from 'react';
-import { getAllExpenses, deleteExpense, payShare } from '../services/expenseService';
+import React, { useState, useEffect, useRef } from 'react';
+import { getAllExpenses, deleteExpense, payShare, subscribeToExpenseEvents } from '../services/expenseService';
 import AddExpenseForm from '../components/AddExpenseForm';
 import { Plus, Receipt, ScanLine, Trash, Edit } from 'lucide-react';
 
 const DashboardPage = () => {
   const [expenses, setExpenses] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [isMenuOpen, setIsMenuOpen] = useState(false);
   const [isFormOpen, setIsFormOpen] = useState(false);
   const [currentExpense, setCurrentExpense] = useState(null);
+  // Idempotency-Key of each share payment until it succeeds
+  const payKeys = useRef(new Map());
 
   const fetchData = async () => {
     try {
       const response = await getAllExpenses();
-      setExpenses(response.data);
+      setExpenses(response.data.expenses);
+      setNextCursor(response.data.nextCursor);
     } catch (error) {
       console.error(error);
     } finally {
@@ -21,6 +25,16 @@ const DashboardPage = () => {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      const response = await getAllExpenses(nextCursor);
+      setExpenses((prev) => [...prev, ...response.data.expenses]);
+      setNextCursor(response.data.nextCursor);
+    } catch (error) {
+      console.error(error);
+    }
+  };
+
   const handleEdit = (expense) => {
     setCurrentExpense(expense);
     setIsFormOpen(true);
@@ -36,8 +50,12 @@ const DashboardPage = () => {
   };
 
   const handleSharePay = async (shareId) => {
+    // Clicking pay again after a failed or timed-out attempt reuses that attempt's key
+    const idempotencyKey = payKeys.current.get(shareId) ?? crypto.randomUUID();
+    payKeys.current.set(shareId, idempotencyKey);
     try {
-      await payShare(shareId);
+      await payShare(shareId, idempotencyKey);
+      payKeys.current.delete(shareId);
       fetchData();
     } catch (error) {
       console.error(error);
@@ -48,6 +66,20 @@ const DashboardPage = () => {
     fetchData();
   }, []);
 
+  // Reload when the server reports a change; a burst of events causes a single reload
+  useEffect(() => {
+    let reloadTimer;
+    const unsubscribe = subscribeToExpenseEvents(() => {
+      clearTimeout(reloadTimer);
+      reloadTimer = setTimeout(fetchData, 300);
+    });
+
+    return () => {
+      clearTimeout(reloadTimer);
+      unsubscribe();
+    };
+  }, []);
+
   if (loading) {
     return (
       <div className="p-8 text-center text-text-primary">
@@ -142,6 +174,15 @@ const DashboardPage = () => {
             ))
           )}
         </div>
+
+        {nextCursor && (
+          <button
+            onClick={loadMore}
+            className="mt-4 w-full py-2 text-sm font-bold text-text-primary border border-gray-200 rounded-lg hover:bg-gray-50"
+          >
+            Load more
+          </button>
+        )}
       </div>
 
       <div className="fixed bottom-8 right-8 flex flex-col items-end gap-3 z-40">
@@ -10,27 +10,43 @@ const getAuthHeaders = () => {
   };
 };
 
-export const getAllExpenses = () => {
+export const getAllExpenses = (cursor) => {
   return apiClient.get('/expenses/all', {
+    params: cursor ? { cursor } : {},
     headers: getAuthHeaders()
   });
 };
 
-export const createExpense = (expenseData) => {
-  return apiClient.post('/expenses', expenseData, {
+// filters: { category: [], paymentMethod: [], status, from, to, counterpartyId, creatorId, text, sort, direction }
+export const searchExpenses = (filters, cursor) => {
+  return apiClient.get('/expenses/search', {
+    params: cursor ? { ...filters, cursor } : filters,
+    // Repeat list filters as category=FOOD&category=TRANSPORT, which is what Spring binds
+    paramsSerializer: { indexes: null },
     headers: getAuthHeaders()
   });
 };
 
+// Send the same key when retrying the same submission; the server then replays the
+// first response instead of creating the expense or paying the share twice
+const withIdempotencyKey = (headers, idempotencyKey) =>
+  idempotencyKey ? { ...headers, 'Idempotency-Key': idempotencyKey } : headers;
+
+export const createExpense = (expenseData, idempotencyKey) => {
+  return apiClient.post('/expenses', expenseData, {
+    headers: withIdempotencyKey(getAuthHeaders(), idempotencyKey)
+  });
+};
+
 export const editExpense = (expenseId, expenseData) => {
   return apiClient.put(`/expenses/${expenseId}`, expenseData, {
     headers: getAuthHeaders()
   });
 };
 
-export const payShare = (shareId) => {
+export const payShare = (shareId, idempotencyKey) => {
   return apiClient.patch(`/expenses/share/${shareId}/pay`,{}, {
-    headers: getAuthHeaders()
+    headers: withIdempotencyKey(getAuthHeaders(), idempotencyKey)
   })
 }
 
@@ -38,4 +54,59 @@ export const deleteExpense = (expenseId) => {
     return apiClient.delete(`/expenses/${expenseId}`,{
         headers:getAuthHeaders()
     });
-};
\ No newline at end of file
+};
+// EventSource can't send the Authorization header, so the stream is read through fetch.
+// onEvent gets each parsed change event; a RESYNC event means some were dropped and the
+// caller should reload. Reconnects with backoff until the returned function is called.
+export const subscribeToExpenseEvents = (onEvent) => {
+  const controller = new AbortController();
+  let stopped = false;
+  let retryDelay = 1000;
+
+  const connect = async () => {
+    try {
+      const response = await fetch(`${apiClient.defaults.baseURL}/events/stream`, {
+        headers: { ...getAuthHeaders(), Accept: 'text/event-stream' },
+        signal: controller.signal
+      });
+      if (!response.ok) throw new Error(`Event stream failed: ${response.status}`);
+
+      retryDelay = 1000;
+      // Changes made while we were disconnected never arrive, so reload once we're back
+      onEvent({ type: 'RESYNC' });
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          const data = buffer.slice(0, end).split('\n')
+            .filter((line) => line.startsWith('data:'))
+            .map((line) => line.slice(5))
+            .join('\n');
+          buffer = buffer.slice(end + 2);
+          if (data) onEvent(JSON.parse(data));
+        }
+      }
+    } catch (error) {
+      if (stopped) return;
+      console.error(error);
+    }
+
+    if (!stopped) {
+      setTimeout(connect, retryDelay);
+      retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+  };
+
+  connect();
+
+  return () => {
+    stopped = true;
+    controller.abort();
+  };
+};